@@ -0,0 +1,70 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   BenchmarkMain.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// BenchmarkMain.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Entry point of benchmarks.jar: the JMH command line, with the results written as JSON by default
+ * <p>
+ * The JSON file holds the parameters, the JVM and the scores of every benchmark, so the files of two versions can
+ * be compared to find regressions. It is jmh-result.json unless -rff is given, and -rf still picks another format.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class BenchmarkMain {
+    /**
+     * Run the benchmarks selected by the command line
+     *
+     * @param args JMH command line options, see -h
+     * @throws CommandLineOptionException if the options are not valid
+     * @throws RunnerException            if a benchmark fails
+     * @throws IOException                if the help or the lists can't be printed
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp()) {
+            options.showHelp();
+            return;
+        }
+        if (options.shouldList() || options.shouldListWithParams() || options.shouldListProfilers()
+                || options.shouldListResultFormats()) { // the plain JMH command line handles these
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+        new Runner(builder.build()).run();
+    }
+}
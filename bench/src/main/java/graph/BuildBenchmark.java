@@ -0,0 +1,110 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   BuildBenchmark.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// BuildBenchmark.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of building the graph of a dictionary, one phase at a time
+ * <p>
+ * - load: read the words of the file, see {@link WordProcessor#forEachWord(String, java.util.function.Consumer)}
+ * - edges: index the words by signature and find every edge, see {@link SignatureIndex}
+ * - populate: both of them and the graph, see {@link GraphProcessor#populateGraph(String)}
+ * - precompute: the all-pairs paths of a populated graph, see {@link GraphProcessor#shortestPathPrecomputation()}
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BuildBenchmark extends DictionaryState {
+    @Param("1")
+    public int parallelism; // threads of populateGraph and shortestPathPrecomputation
+
+    /**
+     * A graph populated before each call of {@link #precompute(Populated)}, which isn't measured
+     */
+    @State(Scope.Thread)
+    public static class Populated {
+        GraphProcessor processor;
+
+        @Setup(Level.Invocation)
+        public void populate(BuildBenchmark benchmark) {
+            processor = new GraphProcessor(benchmark.parallelism);
+            processor.populateGraph(benchmark.file);
+        }
+    }
+
+    @Benchmark
+    public void load(Blackhole blackhole) throws IOException {
+        WordProcessor.forEachWord(file, blackhole::consume);
+    }
+
+    @Benchmark
+    public long edges() {
+        SignatureIndex index = new SignatureIndex();
+        for (String word : words)
+            index.add(word);
+        long[] edges = {0};
+        for (String word : words) {
+            int v = index.id(word);
+            index.forEachAdjacentId(word, u -> {
+                if (u < v) // each edge once
+                    edges[0]++;
+            });
+        }
+        return edges[0];
+    }
+
+    @Benchmark
+    public GraphProcessor populate() {
+        GraphProcessor processor = new GraphProcessor(parallelism);
+        processor.populateGraph(file);
+        return processor;
+    }
+
+    @Benchmark
+    public GraphProcessor precompute(Populated populated) {
+        populated.processor.shortestPathPrecomputation();
+        return populated.processor;
+    }
+}
@@ -0,0 +1,193 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   DictionaryGenerator.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// DictionaryGenerator.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic dictionaries for the benchmarks, with a given size, length distribution and alphabet
+ * <p>
+ * Uniformly random words are almost never adjacent, so only a fraction of the words are random. The others are
+ * derived from an earlier word by one edit (a replacement, an addition or a removal of a char), which gives ladders
+ * and components like those of a real dictionary: the larger the fraction, the denser the graph.
+ * <p>
+ * The same parameters and seed always give the same dictionary.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+final class DictionaryGenerator {
+    /**
+     * Length distribution close to the one of an English dictionary, as length:weight pairs
+     */
+    static final String ENGLISH_LENGTHS = "2:1 3:6 4:13 5:18 6:20 7:18 8:13 9:7 10:4";
+    /**
+     * Alphabet of the English words, in the upper case used by {@link WordProcessor}
+     */
+    static final String ENGLISH_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private final String alphabet; // chars of the words
+    private final int[] lengths; // the lengths of the distribution
+    private final double[] cumulative; // cumulative[k] is the sum of weights[0 ... k] / the sum of all of them
+    private final int minLength, maxLength; // range of the lengths
+    private final double derived; // fraction of the words derived from an earlier word
+    private final Random random;
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param alphabet chars of the words, at least 2, in upper case since {@link WordProcessor} reads them so
+     * @param lengths  length distribution, as length:weight pairs separated by spaces, e.g. "3:1 4:2 5:1"
+     * @param derived  fraction of the words derived from an earlier word by one edit, between 0 and 1
+     * @param seed     seed of the random numbers
+     * @throws IllegalArgumentException if a parameter is not valid
+     */
+    DictionaryGenerator(String alphabet, String lengths, double derived, long seed) {
+        if (alphabet.length() < 2)
+            throw new IllegalArgumentException("The alphabet should have at least 2 chars");
+        if (derived < 0 || derived > 1)
+            throw new IllegalArgumentException("The fraction of derived words should be between 0 and 1");
+        this.alphabet = alphabet;
+        this.derived = derived;
+        random = new Random(seed);
+
+        String[] pairs = lengths.trim().split("\\s+");
+        this.lengths = new int[pairs.length];
+        cumulative = new double[pairs.length];
+        double total = 0;
+        for (int k = 0; k < pairs.length; k++) {
+            String[] pair = pairs[k].split(":");
+            this.lengths[k] = Integer.parseInt(pair[0]);
+            double weight = pair.length > 1 ? Double.parseDouble(pair[1]) : 1;
+            if (this.lengths[k] < 1 || weight < 0)
+                throw new IllegalArgumentException("Invalid length:weight pair " + pairs[k]);
+            total += weight;
+            cumulative[k] = total;
+        }
+        if (total <= 0)
+            throw new IllegalArgumentException("The length weights should not all be 0");
+        int min = Integer.MAX_VALUE, max = 0;
+        for (int k = 0; k < pairs.length; k++) {
+            cumulative[k] /= total;
+            min = Math.min(min, this.lengths[k]);
+            max = Math.max(max, this.lengths[k]);
+        }
+        minLength = min;
+        maxLength = max;
+    }
+
+    /**
+     * Generate a dictionary of distinct words
+     *
+     * @param size number of words
+     * @return the words, in the order they are generated
+     * @throws IllegalArgumentException if there aren't enough distinct words of the lengths and the alphabet
+     */
+    List<String> generate(int size) {
+        List<String> words = new ArrayList<>(size);
+        Set<String> seen = new HashSet<>();
+        char[] buffer = new char[maxLength + 1];
+        for (int failures = 0; words.size() < size; ) {
+            String word = !words.isEmpty() && random.nextDouble() < derived
+                    ? edit(words.get(random.nextInt(words.size())), buffer)
+                    : randomWord(buffer);
+            if (seen.add(word)) {
+                words.add(word);
+                failures = 0;
+            } else if (++failures == 1000) { // almost every word is taken
+                throw new IllegalArgumentException("Not enough distinct words for " + size + " words");
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Write words to a new temporary file, one per line, deleted when the JVM exits
+     *
+     * @param words the words
+     * @return path to the file
+     * @throws IOException if the file can't be written
+     */
+    static Path write(List<String> words) throws IOException {
+        Path file = Files.createTempFile("dictionary", ".txt");
+        file.toFile().deleteOnExit();
+        Files.write(file, words, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    /**
+     * Draw a word with a random length and random chars
+     */
+    private String randomWord(char[] buffer) {
+        double r = random.nextDouble();
+        int k = 0;
+        while (k < lengths.length - 1 && cumulative[k] <= r)
+            k++;
+        for (int i = 0; i < lengths[k]; i++)
+            buffer[i] = randomChar();
+        return new String(buffer, 0, lengths[k]);
+    }
+
+    /**
+     * Derive a word adjacent to word: add or remove a char if the length stays in range, or replace one otherwise
+     */
+    private String edit(String word, char[] buffer) {
+        int length = word.length(), op = random.nextInt(3);
+        if (op == 1 && length < maxLength) { // add a char at position i
+            int i = random.nextInt(length + 1);
+            word.getChars(0, i, buffer, 0);
+            buffer[i] = randomChar();
+            word.getChars(i, length, buffer, i + 1);
+            return new String(buffer, 0, length + 1);
+        }
+        if (op == 2 && length > minLength) { // remove the char at position i
+            int i = random.nextInt(length);
+            word.getChars(0, i, buffer, 0);
+            word.getChars(i + 1, length, buffer, i);
+            return new String(buffer, 0, length - 1);
+        }
+        int i = random.nextInt(length); // replace the char at position i by another one
+        word.getChars(0, length, buffer, 0);
+        char c;
+        do {
+            c = randomChar();
+        } while (c == buffer[i]);
+        buffer[i] = c;
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Draw a char of the alphabet
+     */
+    private char randomChar() {
+        return alphabet.charAt(random.nextInt(alphabet.length()));
+    }
+}
@@ -0,0 +1,81 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   DictionaryState.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// DictionaryState.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * The synthetic dictionary of a benchmark, generated once per trial by {@link DictionaryGenerator}, before
+ * {@link #prepare()}
+ * <p>
+ * The parameters can be changed from the command line, e.g. -p size=1000,100000 -p alphabet=ACGT
+ * -p lengths="4:1 5:1" -p derived=0.9. The lengths are separated by spaces, since JMH splits the values of a
+ * parameter at the commas.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+@State(Scope.Benchmark)
+public abstract class DictionaryState {
+    /**
+     * Seed of the dictionary, so that every run of a benchmark measures the same words
+     */
+    static final long SEED = 400;
+
+    @Param("10000")
+    public int size; // number of words
+    @Param(DictionaryGenerator.ENGLISH_ALPHABET)
+    public String alphabet; // chars of the words
+    @Param(DictionaryGenerator.ENGLISH_LENGTHS)
+    public String lengths; // length distribution, see DictionaryGenerator
+    @Param("0.9")
+    public double derived; // fraction of the words derived from an earlier word, the higher the denser
+
+    protected List<String> words; // the dictionary
+    protected String file; // path to the dictionary file
+
+    /**
+     * Generate the dictionary and write it to a temporary file
+     *
+     * @throws IOException if the file can't be written
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        words = new DictionaryGenerator(alphabet, lengths, derived, SEED).generate(size);
+        file = DictionaryGenerator.write(words).toString();
+        prepare();
+    }
+
+    /**
+     * Prepare the rest of the benchmark once the dictionary is generated, nothing by default
+     */
+    protected void prepare() {
+    }
+}
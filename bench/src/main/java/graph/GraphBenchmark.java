@@ -0,0 +1,179 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   GraphBenchmark.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// GraphBenchmark.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link WordProcessor#isAdjacent(String, String)} and of the mutators of {@link Graph}
+ * <p>
+ * isAdjacent is measured in nanoseconds per call on pairs of random words, which are almost never adjacent and
+ * usually differ early, and on the edges of the dictionary, which have to be compared to the end. The mutators are
+ * measured in microseconds for the whole dictionary: add its words to an empty graph, add its edges to a graph of
+ * its words, remove its edges from its graph, and read the neighbors of every word.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GraphBenchmark extends DictionaryState {
+    /**
+     * Number of pairs of each isAdjacent benchmark
+     */
+    static final int PAIRS = 4096;
+
+    String[] randomPairs; // randomPairs[2k] and randomPairs[2k + 1] are random words
+    String[] edgePairs; // edgePairs[2k] and edgePairs[2k + 1] are adjacent words
+    String[] edges; // every edge of the dictionary, as consecutive pairs of words
+    Graph<String> full; // the graph of the dictionary
+
+    /**
+     * Graphs changed by the mutators, built again before each call, which isn't measured
+     */
+    @State(Scope.Thread)
+    public static class Graphs {
+        Graph<String> vertices; // the words without edges
+        Graph<String> full; // the graph of the dictionary
+
+        @Setup(Level.Invocation)
+        public void build(GraphBenchmark benchmark) {
+            vertices = benchmark.graph(false);
+            full = benchmark.graph(true);
+        }
+    }
+
+    /**
+     * Find the pairs and the edges of the dictionary
+     */
+    @Override
+    protected void prepare() {
+        KeySampler sampler = new KeySampler(words, 0, SEED);
+        randomPairs = sampler.next(2 * PAIRS);
+
+        SignatureIndex index = new SignatureIndex();
+        words.forEach(index::add);
+        List<String> found = new ArrayList<>();
+        for (String word : words)
+            index.forEachAdjacent(word, other -> {
+                if (index.id(other) < index.id(word)) { // each edge once
+                    found.add(word);
+                    found.add(other);
+                }
+            });
+        edges = found.toArray(new String[0]);
+        if (edges.length == 0)
+            throw new IllegalStateException("The dictionary has no edges, increase derived");
+        edgePairs = new String[2 * PAIRS];
+        for (int k = 0; k < edgePairs.length; k++)
+            edgePairs[k] = edges[k % edges.length];
+        full = graph(true);
+    }
+
+    /**
+     * Build a graph of the words of the dictionary
+     *
+     * @param withEdges whether the edges are added too
+     * @return the graph
+     */
+    Graph<String> graph(boolean withEdges) {
+        Graph<String> graph = new Graph<>();
+        words.forEach(graph::addVertex);
+        for (int k = 0; withEdges && k < edges.length; k += 2)
+            graph.addEdge(edges[k], edges[k + 1]);
+        return graph;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isAdjacentRandom() {
+        int adjacent = 0;
+        for (int k = 0; k < randomPairs.length; k += 2)
+            if (WordProcessor.isAdjacent(randomPairs[k], randomPairs[k + 1]))
+                adjacent++;
+        return adjacent;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int isAdjacentEdges() {
+        int adjacent = 0;
+        for (int k = 0; k < edgePairs.length; k += 2)
+            if (WordProcessor.isAdjacent(edgePairs[k], edgePairs[k + 1]))
+                adjacent++;
+        return adjacent;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Graph<String> addVertex() {
+        Graph<String> graph = new Graph<>();
+        for (String word : words)
+            graph.addVertex(word);
+        return graph;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Graph<String> addEdge(Graphs graphs) {
+        for (int k = 0; k < edges.length; k += 2)
+            graphs.vertices.addEdge(edges[k], edges[k + 1]);
+        return graphs.vertices;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Graph<String> removeEdge(Graphs graphs) {
+        for (int k = 0; k < edges.length; k += 2)
+            graphs.full.removeEdge(edges[k], edges[k + 1]);
+        return graphs.full;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void getNeighbors(Blackhole blackhole) {
+        for (String word : words)
+            for (String neighbor : full.getNeighbors(word))
+                blackhole.consume(neighbor);
+    }
+}
@@ -0,0 +1,92 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   KeySampler.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// KeySampler.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Skewed choice of the words queried by the benchmarks (Zipf distribution)
+ * <p>
+ * The word of rank r is drawn with a probability proportional to 1 / r^skew: a skew of 0 is uniform, and around 1
+ * a few popular words make up most of the queries, as in real traffic. The ranks are given to the words in a random
+ * order, so the popular words are spread over the graph.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+final class KeySampler {
+    private final List<String> words; // the words that can be drawn
+    private final int[] ranked; // ranked[r] is the index in words of the word of rank r + 1
+    private final double[] cumulative; // cumulative[r] is the probability of a rank up to r + 1
+    private final Random random;
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param words the words that can be drawn
+     * @param skew  exponent of the Zipf distribution, 0 for uniform
+     * @param seed  seed of the random numbers
+     */
+    KeySampler(List<String> words, double skew, long seed) {
+        int size = words.size();
+        this.words = words;
+        random = new Random(seed);
+        ranked = new int[size];
+        for (int r = 0; r < size; r++) { // random permutation
+            int other = random.nextInt(r + 1);
+            ranked[r] = ranked[other];
+            ranked[other] = r;
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int r = 0; r < size; r++)
+            cumulative[r] = total += 1 / Math.pow(r + 1, skew);
+        for (int r = 0; r < size; r++)
+            cumulative[r] /= total;
+    }
+
+    /**
+     * Draw a word
+     *
+     * @return the word
+     */
+    String next() {
+        int r = Arrays.binarySearch(cumulative, random.nextDouble());
+        return words.get(ranked[r >= 0 ? r : Math.min(-r - 1, ranked.length - 1)]);
+    }
+
+    /**
+     * Draw several words
+     *
+     * @param count number of words
+     * @return the words, in the order they are drawn
+     */
+    String[] next(int count) {
+        String[] result = new String[count];
+        for (int k = 0; k < count; k++)
+            result[k] = next();
+        return result;
+    }
+}
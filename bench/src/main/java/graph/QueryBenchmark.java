@@ -0,0 +1,130 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   QueryBenchmark.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// QueryBenchmark.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+package graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the shortest path queries of {@link GraphProcessor}, in microseconds per query
+ * <p>
+ * The queried words are drawn by a {@link KeySampler}: with skew=0 every word is as likely, and with skew around 1
+ * a few words make up most of the queries, which is what {@link GraphProcessor.QueryMode#CACHED} is made for. The
+ * pairs are drawn once per trial and queried in a cycle, so every mode answers the same pairs. Pairs of words in
+ * different components are answered without a search, so their share depends on the dictionary, see
+ * {@link DictionaryState#derived}.
+ * <p>
+ * The single queries are {@link GraphProcessor#getShortestPath(String, String)} and
+ * {@link GraphProcessor#getShortestDistance(String, String)}, and the batch queries are
+ * {@link GraphProcessor#getShortestPaths(List, List)} and {@link GraphProcessor#getShortestDistances(List, List)}
+ * of {@link #BATCH} pairs.
+ * <p>
+ * With -p metrics=true,false, the queries are also run with {@link GraphMetrics}, to measure their overhead.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryBenchmark extends DictionaryState {
+    /**
+     * Number of pairs drawn per trial, a power of 2
+     */
+    static final int PAIRS = 1 << 14;
+    /**
+     * Number of pairs of a batch query
+     */
+    static final int BATCH = 256;
+
+    @Param({"PRECOMPUTED", "LAZY", "CACHED", "LANDMARK"})
+    public String mode; // see GraphProcessor.QueryMode
+    @Param({"0", "1"})
+    public double skew; // exponent of the Zipf distribution of the queried words
+    @Param("false")
+    public boolean metrics; // whether the queries are measured by a GraphMetrics, to measure its overhead
+
+    GraphProcessor processor;
+    String[] from, to; // the pairs, from[k] and to[k]
+    List<String> batchFrom, batchTo; // the pairs as lists, for the batch queries
+    int next; // index of the next pair
+
+    /**
+     * Build the graph in the mode, and draw the pairs
+     */
+    @Override
+    protected void prepare() {
+        processor = new GraphProcessor(GraphProcessor.QueryMode.valueOf(mode));
+        if (metrics)
+            processor.setMetrics(new GraphMetrics());
+        processor.populateGraph(file);
+        processor.shortestPathPrecomputation();
+        KeySampler sampler = new KeySampler(words, skew, SEED);
+        from = sampler.next(PAIRS);
+        to = sampler.next(PAIRS);
+        batchFrom = Arrays.asList(from);
+        batchTo = Arrays.asList(to);
+    }
+
+    @Benchmark
+    public List<String> shortestPath() {
+        int k = next++ & PAIRS - 1;
+        return processor.getShortestPath(from[k], to[k]);
+    }
+
+    @Benchmark
+    public Integer shortestDistance() {
+        int k = next++ & PAIRS - 1;
+        return processor.getShortestDistance(from[k], to[k]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public PathBatch shortestPaths() {
+        int k = (next += BATCH) & PAIRS - 1;
+        return processor.getShortestPaths(batchFrom.subList(k, k + BATCH), batchTo.subList(k, k + BATCH));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int[] shortestDistances() {
+        int k = (next += BATCH) & PAIRS - 1;
+        return processor.getShortestDistances(batchFrom.subList(k, k + BATCH), batchTo.subList(k, k + BATCH));
+    }
+}
@@ -0,0 +1,283 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   BidirectionalSearch.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// BidirectionalSearch.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Bidirectional BFS between two vertices of an {@link IntGraph}
+ * <p>
+ * One BFS grows from the source and another from the destination. Each step expands one whole level of the side
+ * with the smaller frontier, and the search stops at the first level where the two sides meet.
+ * <p>
+ * The buffers are kept between searches and are not cleared: a vertex is visited by a side in the current search
+ * iff its stamp equals {@link #epoch}. So a search doesn't allocate anything once the buffers are large enough.
+ * An instance is not thread safe, every thread should use its own.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class BidirectionalSearch {
+    private static final int FORWARD = 0; // side growing from the source
+    private static final int BACKWARD = 1; // side growing from the destination
+
+    private int[][] stamp = new int[2][0]; // stamp[side][v] == epoch iff v is visited by side
+    private int[][] distance = new int[2][0]; // distance[side][v] is the distance from the root of side to v
+    private int[][] parent = new int[2][0]; // parent[side][v] is the vertex that discovered v, -1 for the root
+    private int[][] queue = new int[2][0]; // queue[side] holds the visited vertices of side in BFS order
+    private int[] head = new int[2]; // queue[side][head[side]] is the next vertex to be expanded
+    private int[] tail = new int[2]; // queue[side][tail[side]] is the next free slot
+    private int epoch; // stamp of the current search
+    private int meetForward, meetBackward; // the edge where the two sides met
+    private int[] onShortestPath = new int[0]; // == epoch iff on a shortest path, see shortestPathVertices()
+    private long inspections; // number of edges checked by the last search
+
+    /**
+     * Find the distance between src and dst
+     *
+     * @param graph the graph to be searched
+     * @param src   id of the source
+     * @param dst   id of the destination
+     * @return number of edges of the shortest path, or -1 if dst can not be reached from src
+     */
+    int search(IntGraph graph, int src, int dst) {
+        start(graph.size());
+        visit(FORWARD, src, 0, -1);
+        visit(BACKWARD, dst, 0, -1);
+        if (src == dst) {
+            meetForward = meetBackward = src;
+            return 0;
+        }
+
+        while (head[FORWARD] < tail[FORWARD] && head[BACKWARD] < tail[BACKWARD]) {
+            int side = tail[FORWARD] - head[FORWARD] <= tail[BACKWARD] - head[BACKWARD] ? FORWARD : BACKWARD;
+            int found = expand(graph, side);
+            if (found >= 0)
+                return found;
+        }
+        return -1; // one side ran out of vertices before meeting the other
+    }
+
+    /**
+     * Visit every vertex within radius steps of src, level by level, with the buffers of the side of the source.
+     * The search stops at the last level instead of expanding it, so it only touches the vertices it reports and
+     * their edges. After this search, only {@link #visited(int)} and {@link #distanceFromSource(int)} are valid.
+     *
+     * @param graph  the graph to be searched
+     * @param src    id of the source
+     * @param radius maximum distance from src, not negative
+     * @return number of vertices visited, src included
+     */
+    int searchWithin(IntGraph graph, int src, int radius) {
+        start(graph.size());
+        visit(FORWARD, src, 0, -1);
+        int[] sideStamp = stamp[FORWARD], sideDistance = distance[FORWARD], sideQueue = queue[FORWARD];
+        for (; head[FORWARD] < tail[FORWARD]; head[FORWARD]++) {
+            int cur = sideQueue[head[FORWARD]];
+            if (sideDistance[cur] == radius) // the rest of the queue is on the last level too
+                break;
+            int degree = graph.degree(cur);
+            inspections += degree;
+            for (int k = 0; k < degree; k++) {
+                int nxt = graph.neighbor(cur, k);
+                if (sideStamp[nxt] != epoch)
+                    visit(FORWARD, nxt, sideDistance[cur] + 1, cur);
+            }
+        }
+        return tail[FORWARD];
+    }
+
+    /**
+     * Get a vertex visited by the last {@link #searchWithin(IntGraph, int, int)}
+     *
+     * @param q index of the vertex in the order of the visits, less than the number of vertices visited
+     * @return id of the vertex; the source is visited first, and the vertices closer to it before the farther ones
+     */
+    int visited(int q) {
+        return queue[FORWARD][q];
+    }
+
+    /**
+     * Get the distance from the source to a vertex visited by the last {@link #searchWithin(IntGraph, int, int)}
+     *
+     * @param v one of the visited vertices
+     * @return the distance from the source to v
+     */
+    int distanceFromSource(int v) {
+        return distance[FORWARD][v];
+    }
+
+    /**
+     * Get the number of vertices visited by the last search, for metrics
+     *
+     * @return number of vertices visited by both sides
+     */
+    int lastVisits() {
+        return tail[FORWARD] + tail[BACKWARD];
+    }
+
+    /**
+     * Get the number of edges checked by the last search, for metrics
+     *
+     * @return number of edge inspections
+     */
+    long lastInspections() {
+        return inspections;
+    }
+
+    /**
+     * Get the vertices of the shortest path found by the last successful {@link #search(IntGraph, int, int)}
+     *
+     * @return ids of the vertices on the path, from the source to the destination
+     */
+    int[] path() {
+        int forwardLength = distance[FORWARD][meetForward];
+        int backwardLength = meetForward == meetBackward ? -1 : distance[BACKWARD][meetBackward];
+        int[] path = new int[forwardLength + backwardLength + 2];
+
+        int k = forwardLength; // the source side is walked backward from the meeting vertex
+        for (int v = meetForward; v != -1; v = parent[FORWARD][v])
+            path[k--] = v;
+        k = forwardLength + 1; // the destination side is walked forward, empty if the source is the destination
+        for (int v = meetBackward; k < path.length; v = parent[BACKWARD][v])
+            path[k++] = v;
+        return path;
+    }
+
+    /**
+     * Find every vertex on a shortest path between the source and the destination of the last successful
+     * {@link #search(IntGraph, int, int)}, from the vertices the two sides visited
+     * <p>
+     * Every vertex on a shortest path is visited by one of the sides. A vertex visited from the source at distance
+     * t is on a shortest path of length d iff it has a neighbor at distance d - t - 1 from the destination: either
+     * one visited from the destination, or one visited from the source that is itself on a shortest path. So the
+     * side of the source is swept from its last level back to its root, and the side of the destination likewise.
+     *
+     * @param graph the graph that was searched
+     * @return ids of the vertices on a shortest path, in increasing order
+     */
+    int[] shortestPathVertices(IntGraph graph) {
+        int length = length();
+        for (int side = FORWARD; side <= BACKWARD; side++) {
+            int other = 1 - side;
+            int[] sideDistance = distance[side], otherDistance = distance[other], otherStamp = stamp[other];
+            for (int q = tail[side] - 1; q >= 0; q--) { // from the last level back to the root
+                int cur = queue[side][q], rest = length - sideDistance[cur] - 1; // distance left after a step
+                if (rest < 0) // too far from the root to be on a shortest path
+                    continue;
+                for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+                    int nxt = graph.neighbor(cur, k);
+                    if (otherStamp[nxt] == epoch ? otherDistance[nxt] == rest // visited from the other root
+                            : onShortestPath[nxt] == epoch && sideDistance[nxt] == sideDistance[cur] + 1) {
+                        onShortestPath[cur] = epoch;
+                        break;
+                    }
+                }
+            }
+        }
+
+        int[] vertices = new int[tail[FORWARD] + tail[BACKWARD]];
+        int count = 0;
+        for (int side = FORWARD; side <= BACKWARD; side++)
+            for (int q = 0; q < tail[side]; q++)
+                if (onShortestPath[queue[side][q]] == epoch)
+                    vertices[count++] = queue[side][q];
+        Arrays.sort(vertices, 0, count);
+        return Arrays.copyOf(vertices, count);
+    }
+
+    /**
+     * Get the distance from a vertex on a shortest path to the destination of the last successful search
+     *
+     * @param v one of the vertices returned by {@link #shortestPathVertices(IntGraph)}
+     * @return the distance from v to the destination
+     */
+    int toDestination(int v) {
+        return stamp[FORWARD][v] == epoch ? length() - distance[FORWARD][v] : distance[BACKWARD][v];
+    }
+
+    /**
+     * Get the length of the shortest path found by the last successful search
+     */
+    private int length() {
+        return meetForward == meetBackward ? 0 : distance[FORWARD][meetForward] + 1 + distance[BACKWARD][meetBackward];
+    }
+
+    /**
+     * Expand the current level of side
+     *
+     * @param graph the graph to be searched
+     * @param side  {@link #FORWARD} or {@link #BACKWARD}
+     * @return length of the shortest path through this level, or -1 if the two sides didn't meet
+     */
+    private int expand(IntGraph graph, int side) {
+        int other = 1 - side, best = -1;
+        int[] sideDistance = distance[side], otherDistance = distance[other], otherStamp = stamp[other];
+
+        for (int end = tail[side]; head[side] < end; head[side]++) {
+            int cur = queue[side][head[side]], degree = graph.degree(cur);
+            inspections += degree;
+            for (int k = 0; k < degree; k++) {
+                int nxt = graph.neighbor(cur, k);
+                if (otherStamp[nxt] == epoch) { // the two sides meet, keep the shortest one of this level
+                    int length = sideDistance[cur] + 1 + otherDistance[nxt];
+                    if (best < 0 || length < best) {
+                        best = length;
+                        meetForward = side == FORWARD ? cur : nxt;
+                        meetBackward = side == FORWARD ? nxt : cur;
+                    }
+                } else if (stamp[side][nxt] != epoch) {
+                    visit(side, nxt, sideDistance[cur] + 1, cur);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Mark v as visited by side and push it into the queue of side
+     */
+    private void visit(int side, int v, int dist, int from) {
+        stamp[side][v] = epoch;
+        distance[side][v] = dist;
+        parent[side][v] = from;
+        queue[side][tail[side]++] = v;
+    }
+
+    /**
+     * Start a new search on a graph of size vertices: grow the buffers if needed and move to the next epoch
+     */
+    private void start(int size) {
+        if (stamp[FORWARD].length < size || epoch == Integer.MAX_VALUE) {
+            for (int side = FORWARD; side <= BACKWARD; side++) {
+                stamp[side] = new int[size];
+                distance[side] = new int[size];
+                parent[side] = new int[size];
+                queue[side] = new int[size];
+            }
+            onShortestPath = new int[size];
+            epoch = 0;
+        }
+        epoch++;
+        head[FORWARD] = tail[FORWARD] = head[BACKWARD] = tail[BACKWARD] = 0;
+        inspections = 0;
+    }
+}
@@ -0,0 +1,237 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   BreadthFirstSearch.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// BreadthFirstSearch.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * BFS from a source vertex of an {@link IntGraph}, finding the distance and the predecessor of every vertex
+ * <p>
+ * The BFS is direction-optimizing (Beamer et al.): each level is expanded either
+ * - top-down: every vertex of the frontier checks all of its neighbors for unvisited ones, or
+ * - bottom-up: every unvisited vertex checks its neighbors until it finds one in the frontier.
+ * Top-down is cheaper while the frontier is small. When the frontier has more than 1/{@link #ALPHA} of the edges of
+ * the unvisited vertices, most of the top-down checks hit visited vertices, so the search goes bottom-up until the
+ * frontier shrinks below 1/{@link #BETA} of the vertices.
+ * The levels are kept in a queue as in a plain BFS. The visited vertices and the frontier of a bottom-up step are
+ * bitsets, so a bottom-up step skips 64 visited vertices at a time.
+ * <p>
+ * Either way, the predecessor of a vertex is its neighbor with the smallest id on the previous level: top-down keeps
+ * the smallest one seen, and bottom-up walks the (sorted) neighbors in increasing order of id and stops at the first.
+ * So the result doesn't depend on the directions chosen.
+ * <p>
+ * The buffers are kept between searches, so a search doesn't allocate anything once they are large enough.
+ * An instance is not thread safe, every thread should use its own.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class BreadthFirstSearch {
+    /**
+     * Go bottom-up when the edges of the frontier are more than 1/ALPHA of the edges of the unvisited vertices.
+     * Beamer et al. use 14, but word graphs are sparse and have long paths, where 4 inspects the fewest edges.
+     */
+    static final int ALPHA = 4;
+    /**
+     * Go back top-down when the frontier has less than 1/BETA of the vertices
+     */
+    static final int BETA = 24;
+
+    private int[] distance = new int[0]; // distance[v] is the distance from the source to v, -1 if unreachable
+    private int[] predecessor = new int[0]; // predecessor[v] is the vertex before v on the path, -1 if none
+    private int[] queue = new int[0]; // visited vertices, level by level
+    private int tail; // end of the queue
+    private long nextEdges; // sum of the degrees of the vertices queued by the current step
+    private long[] visited = new long[0]; // bit v is set iff v is visited
+    private long[] frontier = new long[0]; // bit v is set iff v is on the current level, only in bottom-up steps
+    private IntGraph lastGraph; // the graph of the last search
+    private long totalEdges; // sum of the degrees of all the vertices in lastGraph
+    private long inspections; // number of edges checked by all the searches
+    private long lastInspections; // number of edges checked by the last search
+
+    /**
+     * Run a BFS from src. The results stay valid until the next search.
+     *
+     * @param graph the graph to be searched, whose neighbors are sorted by id
+     * @param src   the source
+     */
+    void search(IntGraph graph, int src) {
+        int size = graph.size();
+        start(graph, size);
+        long before = inspections;
+
+        distance[src] = 0;
+        visited[src >>> 6] |= 1L << src;
+        queue[0] = src;
+        tail = 1;
+        long frontierEdges = graph.degree(src), unvisitedEdges = totalEdges - frontierEdges;
+        boolean bottomUp = false;
+
+        for (int level = 0, head = 0; head < tail; level++) {
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA)
+                bottomUp = true;
+            else if (bottomUp && tail - head < size / BETA)
+                bottomUp = false;
+
+            int end = tail; // the frontier is queue[head] ... queue[end - 1]
+            nextEdges = 0;
+            if (bottomUp)
+                bottomUpStep(graph, level, head, end, size);
+            else
+                topDownStep(graph, level, head, end);
+            head = end;
+            frontierEdges = nextEdges;
+            unvisitedEdges -= nextEdges;
+        }
+        lastInspections = inspections - before;
+    }
+
+    /**
+     * Get the distances found by the last search
+     *
+     * @return distance[v] is the distance from the source to v, -1 if unreachable; only the first graph.size()
+     * elements are valid
+     */
+    int[] distance() {
+        return distance;
+    }
+
+    /**
+     * Get the predecessors found by the last search
+     *
+     * @return predecessor[v] is the vertex before v on the path from the source, -1 if none; only the first
+     * graph.size() elements are valid
+     */
+    int[] predecessor() {
+        return predecessor;
+    }
+
+    /**
+     * Get the number of edges checked by all the searches of this instance, for benchmarks
+     *
+     * @return number of edge inspections
+     */
+    long inspections() {
+        return inspections;
+    }
+
+    /**
+     * Get the number of vertices visited by the last search, for metrics
+     *
+     * @return number of vertices reached from the source
+     */
+    int lastVisits() {
+        return tail;
+    }
+
+    /**
+     * Get the number of edges checked by the last search, for metrics
+     *
+     * @return number of edge inspections
+     */
+    long lastInspections() {
+        return lastInspections;
+    }
+
+    /**
+     * Expand the frontier queue[head] ... queue[end - 1] top-down: visit the unvisited neighbors of each of them
+     */
+    private void topDownStep(IntGraph graph, int level, int head, int end) {
+        for (int i = head; i < end; i++) {
+            int cur = queue[i], degree = graph.degree(cur);
+            inspections += degree;
+            for (int k = 0; k < degree; k++) {
+                int nxt = graph.neighbor(cur, k);
+                if (distance[nxt] < 0) // for each unvisited neighbor
+                    visit(graph, nxt, level + 1, cur);
+                else if (distance[nxt] == level + 1 && cur < predecessor[nxt])
+                    predecessor[nxt] = cur; // keep the smallest predecessor
+            }
+        }
+    }
+
+    /**
+     * Expand the frontier queue[head] ... queue[end - 1] bottom-up: every unvisited vertex looks for a neighbor in it
+     */
+    private void bottomUpStep(IntGraph graph, int level, int head, int end, int size) {
+        for (int i = head; i < end; i++)
+            frontier[queue[i] >>> 6] |= 1L << queue[i];
+
+        for (int w = 0, words = (size + 63) >>> 6; w < words; w++) {
+            long bits = ~visited[w];
+            if (w == words - 1 && (size & 63) != 0)
+                bits &= (1L << size) - 1; // no vertex after the last one
+            for (; bits != 0; bits &= bits - 1) {
+                int cur = w << 6 | Long.numberOfTrailingZeros(bits);
+                for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+                    int parent = graph.neighbor(cur, k);
+                    if ((frontier[parent >>> 6] & 1L << parent) != 0) { // the first neighbor in the frontier
+                        inspections += k + 1;
+                        visit(graph, cur, level + 1, parent);
+                        break;
+                    }
+                    if (k == degree - 1)
+                        inspections += degree;
+                }
+            }
+        }
+
+        for (int i = head; i < end; i++)
+            frontier[queue[i] >>> 6] = 0;
+    }
+
+    /**
+     * Visit v on level dist from its predecessor, and add it to the queue
+     */
+    private void visit(IntGraph graph, int v, int dist, int from) {
+        distance[v] = dist;
+        predecessor[v] = from;
+        visited[v >>> 6] |= 1L << v;
+        queue[tail++] = v;
+        nextEdges += graph.degree(v);
+    }
+
+    /**
+     * Start a new search on a graph of size vertices: grow the buffers if needed and reset them
+     */
+    private void start(IntGraph graph, int size) {
+        int words = (size + 63) >>> 6;
+        if (distance.length < size) {
+            distance = new int[size];
+            predecessor = new int[size];
+            queue = new int[size];
+        }
+        if (visited.length < words) {
+            visited = new long[words];
+            frontier = new long[words];
+        }
+        Arrays.fill(distance, 0, size, -1); // -1 for not visited
+        Arrays.fill(predecessor, 0, size, -1);
+        Arrays.fill(visited, 0, words, 0);
+
+        if (graph != lastGraph) { // a graph is never changed, so its edges are counted once
+            lastGraph = graph;
+            totalEdges = 0;
+            for (int v = 0; v < size; v++)
+                totalEdges += graph.degree(v);
+        }
+    }
+}
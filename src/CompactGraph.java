@@ -0,0 +1,396 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   CompactGraph.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// CompactGraph.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable undirected and unweighted graph of words, frozen from another graph or mapped from a snapshot
+ * <p>
+ * Each vertex is identified by an int id, so the graph is an {@link IntGraph} of the ids as well.
+ * The adjacency is stored in compressed sparse row (CSR) form:
+ * the ids of the neighbors of vertex v are targets[offsets[v]] ... targets[offsets[v + 1] - 1], sorted.
+ * So an edge costs 8 bytes (4 bytes in each direction), instead of two HashSet entries in {@link Graph}.
+ * <p>
+ * The words are stored the same way, as their UTF-8 bytes one after another, and their ids in an open addressing
+ * hash table by {@link String#hashCode()}, which is the same in every JVM. So all the data is in flat buffers,
+ * which a snapshot writes as they are and maps back without decoding anything, see {@link GraphSnapshot}.
+ * A frozen graph keeps its words as strings as well, while a mapped one decodes a word when it is asked for.
+ * <p>
+ * All the mutators of {@link GraphADT} fail (return null or false), since the graph can not be changed.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class CompactGraph implements GraphADT<String>, IntGraph {
+    private final String[] words; // words[v] is the word of vertex v, null if mapped (decoded from wordBytes then)
+    private final ByteBuffer wordBytes; // UTF-8 bytes of the words, one after another
+    private final IntBuffer wordStarts; // the word of v is wordBytes[wordStarts[v]] until wordStarts[v + 1]
+    private final IntBuffer slots; // hash table of the ids by their word, id + 1 in each used slot, 0 in the others
+    private final IntBuffer offsets; // the neighbors of v start at targets[offsets[v]]
+    private final IntBuffer targets; // neighbor ids of all the vertices, one row after another
+
+    /**
+     * Freeze graph into a CompactGraph. The id of a vertex is its index in words.
+     * <p>
+     * Valid argument conditions:
+     * 1. words should contain every vertex of graph exactly once
+     *
+     * @param graph the graph to be frozen
+     * @param words all the vertices of graph, in the order of their ids
+     */
+    CompactGraph(GraphADT<String> graph, List<String> words) {
+        int size = words.size();
+        this.words = words.toArray(new String[size]);
+
+        // the bytes of the words, then the table of their ids, twice as large as the number of words
+        byte[][] encoded = new byte[size][];
+        int[] starts = new int[size + 1];
+        for (int v = 0; v < size; v++) {
+            encoded[v] = this.words[v].getBytes(StandardCharsets.UTF_8);
+            starts[v + 1] = starts[v] + encoded[v].length;
+        }
+        byte[] bytes = new byte[starts[size]];
+        for (int v = 0; v < size; v++)
+            System.arraycopy(encoded[v], 0, bytes, starts[v], encoded[v].length);
+        int capacity = 2;
+        while (capacity < 2 * size)
+            capacity *= 2;
+        int[] table = new int[capacity];
+        for (int v = 0; v < size; v++) {
+            int slot = hash(this.words[v]) & (capacity - 1);
+            while (table[slot] != 0)
+                slot = (slot + 1) & (capacity - 1);
+            table[slot] = v + 1;
+        }
+        wordBytes = ByteBuffer.wrap(bytes);
+        wordStarts = IntBuffer.wrap(starts);
+        slots = IntBuffer.wrap(table);
+
+        // first pass: count the neighbors to find where each row starts
+        int[] rows = new int[size + 1];
+        for (int v = 0; v < size; v++) {
+            int degree = 0;
+            for (String ignored : graph.getNeighbors(this.words[v]))
+                degree++;
+            rows[v + 1] = rows[v] + degree;
+        }
+        offsets = IntBuffer.wrap(rows);
+
+        // second pass: fill each row and sort it
+        int[] ids = new int[rows[size]];
+        for (int v = 0; v < size; v++) {
+            int k = rows[v];
+            for (String e : graph.getNeighbors(this.words[v]))
+                ids[k++] = id(e);
+            Arrays.sort(ids, rows[v], k);
+        }
+        targets = IntBuffer.wrap(ids);
+    }
+
+    /**
+     * Create a CompactGraph from its buffers, e.g. mapped from a snapshot
+     *
+     * @param wordBytes  UTF-8 bytes of the words, one after another
+     * @param wordStarts the word of v starts at wordBytes[wordStarts[v]]
+     * @param slots      hash table of the ids by their word
+     * @param offsets    the neighbors of v start at targets[offsets[v]]
+     * @param targets    neighbor ids of all the vertices, one sorted row after another
+     */
+    private CompactGraph(ByteBuffer wordBytes, IntBuffer wordStarts, IntBuffer slots, IntBuffer offsets,
+                         IntBuffer targets) {
+        words = null;
+        this.wordBytes = wordBytes;
+        this.wordStarts = wordStarts;
+        this.slots = slots;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Write the graph to a snapshot: the number of vertices, of bytes of the words, of slots and of targets as
+     * fields, then the sections of the bytes of the words, their starts, the slots, the offsets and the targets
+     *
+     * @param out the snapshot
+     * @throws IOException exception resulting from writing the snapshot
+     */
+    void write(GraphSnapshot.Output out) throws IOException {
+        out.putInt(size());
+        out.putInt(wordBytes.capacity());
+        out.putInt(slots.capacity());
+        out.putInt(targets.capacity());
+        out.putBytes(wordBytes);
+        out.putInts(wordStarts);
+        out.putInts(slots);
+        out.putInts(offsets);
+        out.putInts(targets);
+    }
+
+    /**
+     * Read a graph written by {@link #write(GraphSnapshot.Output)}, as views of the mapped snapshot
+     *
+     * @param in the snapshot
+     * @return the graph
+     * @throws IOException exception resulting from reading the snapshot, or if it is corrupted
+     */
+    static CompactGraph read(GraphSnapshot.Input in) throws IOException {
+        int size = in.getInt(), numBytes = in.getInt(), capacity = in.getInt(), numTargets = in.getInt();
+        if (size < 0 || numBytes < 0 || numTargets < 0 || capacity <= size || Integer.bitCount(capacity) != 1
+                || size == Integer.MAX_VALUE)
+            throw new IOException("Corrupted snapshot: invalid graph sizes");
+        ByteBuffer wordBytes = in.getBytes(numBytes);
+        IntBuffer wordStarts = in.getInts(size + 1);
+        IntBuffer slots = in.getInts(capacity);
+        IntBuffer offsets = in.getInts(size + 1);
+        IntBuffer targets = in.getInts(numTargets);
+
+        // the ends of the arrays are checked here, their contents by the checksums if the snapshot is verified
+        if (wordStarts.get(0) != 0 || wordStarts.get(size) != numBytes || offsets.get(0) != 0
+                || offsets.get(size) != numTargets)
+            throw new IOException("Corrupted snapshot: invalid adjacency");
+        return new CompactGraph(wordBytes, wordStarts, slots, offsets, targets);
+    }
+
+    /**
+     * Get the number of vertices in the graph
+     *
+     * @return number of vertices
+     */
+    @Override
+    public int size() {
+        return offsets.capacity() - 1;
+    }
+
+    /**
+     * Get the id of a vertex
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    public int id(String vertex) {
+        if (vertex == null)
+            return -1;
+        int mask = slots.capacity() - 1;
+        for (int probe = 0, slot = hash(vertex) & mask; probe <= mask; probe++, slot = (slot + 1) & mask) {
+            int id = slots.get(slot) - 1;
+            if (id < 0 || matches(id, vertex))
+                return id;
+        }
+        return -1;
+    }
+
+    /**
+     * Get the vertex of an id
+     *
+     * @param id the id of the vertex, between 0 and size() - 1
+     * @return the vertex
+     */
+    public String vertex(int id) {
+        if (words != null)
+            return words[id];
+        int start = wordStarts.get(id);
+        byte[] bytes = new byte[wordStarts.get(id + 1) - start];
+        for (int k = 0; k < bytes.length; k++)
+            bytes[k] = wordBytes.get(start + k);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the number of neighbors of a vertex
+     *
+     * @param id the id of the vertex
+     * @return number of neighbors
+     */
+    @Override
+    public int degree(int id) {
+        return offsets.get(id + 1) - offsets.get(id);
+    }
+
+    /**
+     * Get the k-th neighbor of a vertex. Neighbors are sorted by id.
+     *
+     * @param id the id of the vertex
+     * @param k  between 0 and degree(id) - 1
+     * @return the id of the k-th neighbor
+     */
+    @Override
+    public int neighbor(int id, int k) {
+        return targets.get(offsets.get(id) + k);
+    }
+
+    /**
+     * Graph can not be changed
+     *
+     * @param vertex - the vertex to be added
+     * @return null
+     */
+    @Override
+    public String addVertex(String vertex) {
+        return null;
+    }
+
+    /**
+     * Graph can not be changed
+     *
+     * @param vertex - the vertex to be removed
+     * @return null
+     */
+    @Override
+    public String removeVertex(String vertex) {
+        return null;
+    }
+
+    /**
+     * Graph can not be changed
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return false
+     */
+    @Override
+    public boolean addEdge(String vertex1, String vertex2) {
+        return false;
+    }
+
+    /**
+     * Graph can not be changed
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return false
+     */
+    @Override
+    public boolean removeEdge(String vertex1, String vertex2) {
+        return false;
+    }
+
+    /**
+     * Check whether the two vertices are adjacent, by a binary search in the neighbors of vertex1
+     * <p>
+     * Valid argument conditions:
+     * 1. both the vertices should exist in the graph
+     * 2. vertex1 should not equal vertex2
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return true if both the vertices have an edge with each other, else return
+     * false if vertex1 and vertex2 are not connected (also if valid
+     * conditions are violated)
+     */
+    @Override
+    public boolean isAdjacent(String vertex1, String vertex2) {
+        int v1 = id(vertex1), v2 = id(vertex2);
+        if (v1 < 0 || v2 < 0 || v1 == v2)
+            return false;
+        int low = offsets.get(v1), high = offsets.get(v1 + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1, target = targets.get(middle);
+            if (target == v2)
+                return true;
+            if (target < v2)
+                low = middle + 1;
+            else
+                high = middle - 1;
+        }
+        return false;
+    }
+
+    /**
+     * Get all the neighbor vertices of a vertex
+     *
+     * @param vertex - the vertex
+     * @return an iterable for all the immediate connected neighbor vertices, or null if vertex is not in the graph
+     */
+    @Override
+    public Iterable<String> getNeighbors(String vertex) {
+        int id = id(vertex);
+        if (id < 0)
+            return null;
+
+        return new AbstractList<String>() { // view of the row, nothing is copied
+            @Override
+            public String get(int k) {
+                if (k < 0 || k >= size())
+                    throw new IndexOutOfBoundsException("Index: " + k + ", Size: " + size());
+                return vertex(neighbor(id, k));
+            }
+
+            @Override
+            public int size() {
+                return degree(id);
+            }
+        };
+    }
+
+    /**
+     * Get all the vertices in the graph, in the order of their ids
+     *
+     * @return an iterable for all the vertices
+     */
+    @Override
+    public Iterable<String> getAllVertices() {
+        return new AbstractList<String>() { // view of the words, decoded as they are read if mapped
+            @Override
+            public String get(int id) {
+                if (id < 0 || id >= size())
+                    throw new IndexOutOfBoundsException("Index: " + id + ", Size: " + size());
+                return vertex(id);
+            }
+
+            @Override
+            public int size() {
+                return CompactGraph.this.size();
+            }
+        };
+    }
+
+    /**
+     * Check whether a vertex is a word, without decoding the vertex unless the word has non ASCII characters
+     */
+    private boolean matches(int id, String word) {
+        if (words != null)
+            return words[id].equals(word);
+        int start = wordStarts.get(id), length = wordStarts.get(id + 1) - start;
+        for (int k = 0; k < word.length(); k++) {
+            char c = word.charAt(k);
+            if (c >= 0x80) // more than one byte in UTF-8
+                return word.equals(vertex(id));
+            if (k == length || wordBytes.get(start + k) != c)
+                return false;
+        }
+        return word.length() == length;
+    }
+
+    /**
+     * Get the slot of a word in the hash table of the ids, before the mask: its hash code with the high bits
+     * spread to the low ones, since the table only uses the low bits
+     */
+    private static int hash(String word) {
+        int h = word.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,284 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   ComponentIndex.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// ComponentIndex.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable index of the connected components of a graph, so that two vertices in different components are known to
+ * be unreachable from each other in O(1)
+ * <p>
+ * Components are numbered in the order of their smallest vertex. The vertices of a component are numbered from 0 as
+ * well (the local index), in increasing order of id, so that the data of a component can be stored in arrays sized
+ * to the component, see {@link PathTable}.
+ * <p>
+ * The index is built from a {@link UnionFind}, which is kept up to date while edges are added, or from the edges of
+ * an {@link IntGraph}, or mapped from a snapshot with its graph, see {@link GraphSnapshot}.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class ComponentIndex {
+    private final IntBuffer component; // component[v] is the component of vertex v
+    private final IntBuffer local; // local[v] is the index of v among the vertices of its component
+    private final IntBuffer start; // the vertices of component c are members[start[c]] ... members[start[c + 1] - 1]
+    private final IntBuffer members; // vertices of all the components, one component after another, in order of id
+
+    /**
+     * Create the index of the sets of a union-find
+     *
+     * @param sets the union-find, whose elements are the vertices
+     */
+    ComponentIndex(UnionFind sets) {
+        int size = sets.size();
+        int[] component = new int[size];
+        int[] local = new int[size];
+        int count = 0;
+        int[] ids = new int[size]; // ids[root] is 1 + the component of the set of root, 0 if not numbered yet
+        for (int v = 0; v < size; v++) {
+            int root = sets.find(v);
+            if (ids[root] == 0)
+                ids[root] = ++count;
+            component[v] = ids[root] - 1;
+        }
+
+        // counting sort of the vertices by component, keeping the order of id in each component
+        int[] start = new int[count + 1];
+        for (int v = 0; v < size; v++)
+            start[component[v] + 1]++;
+        for (int c = 0; c < count; c++)
+            start[c + 1] += start[c];
+        int[] members = new int[size];
+        int[] next = Arrays.copyOf(start, count);
+        for (int v = 0; v < size; v++) {
+            local[v] = next[component[v]] - start[component[v]];
+            members[next[component[v]]++] = v;
+        }
+        this.component = IntBuffer.wrap(component);
+        this.local = IntBuffer.wrap(local);
+        this.start = IntBuffer.wrap(start);
+        this.members = IntBuffer.wrap(members);
+    }
+
+    /**
+     * Create an index from its buffers, e.g. mapped from a snapshot
+     *
+     * @param component component[v] is the component of vertex v
+     * @param local     local[v] is the index of v among the vertices of its component
+     * @param start     the vertices of component c start at members[start[c]]
+     * @param members   vertices of all the components, one component after another
+     */
+    private ComponentIndex(IntBuffer component, IntBuffer local, IntBuffer start, IntBuffer members) {
+        this.component = component;
+        this.local = local;
+        this.start = start;
+        this.members = members;
+    }
+
+    /**
+     * Create the index of the components of graph
+     *
+     * @param graph the graph
+     * @return the index
+     */
+    static ComponentIndex of(IntGraph graph) {
+        UnionFind sets = new UnionFind();
+        for (int v = 0; v < graph.size(); v++)
+            sets.add();
+        for (int v = 0; v < graph.size(); v++)
+            for (int k = 0, degree = graph.degree(v); k < degree; k++)
+                sets.union(v, graph.neighbor(v, k));
+        return new ComponentIndex(sets);
+    }
+
+    /**
+     * Write the index to a snapshot: the number of components as a field, then the sections of component, local,
+     * start and members
+     *
+     * @param out the snapshot
+     * @throws IOException exception resulting from writing the snapshot
+     */
+    void write(GraphSnapshot.Output out) throws IOException {
+        out.putInt(count());
+        out.putInts(component);
+        out.putInts(local);
+        out.putInts(start);
+        out.putInts(members);
+    }
+
+    /**
+     * Read an index written by {@link #write(GraphSnapshot.Output)}, as views of the mapped snapshot
+     *
+     * @param in   the snapshot
+     * @param size number of vertices of the graph
+     * @return the index
+     * @throws IOException exception resulting from reading the snapshot, or if it is corrupted
+     */
+    static ComponentIndex read(GraphSnapshot.Input in, int size) throws IOException {
+        int count = in.getInt();
+        if (count < 0 || count > size)
+            throw new IOException("Corrupted snapshot: invalid number of components " + count);
+        IntBuffer component = in.getInts(size), local = in.getInts(size), start = in.getInts(count + 1);
+        IntBuffer members = in.getInts(size);
+        if (start.get(0) != 0 || start.get(count) != size)
+            throw new IOException("Corrupted snapshot: invalid components");
+        return new ComponentIndex(component, local, start, members);
+    }
+
+    /**
+     * Get the number of vertices
+     *
+     * @return number of vertices
+     */
+    int size() {
+        return component.capacity();
+    }
+
+    /**
+     * Get the number of components
+     *
+     * @return number of components
+     */
+    int count() {
+        return start.capacity() - 1;
+    }
+
+    /**
+     * Get the component of a vertex
+     *
+     * @param v the vertex
+     * @return the component of v, between 0 and count() - 1
+     */
+    int component(int v) {
+        return component.get(v);
+    }
+
+    /**
+     * Get the index of a vertex among the vertices of its component
+     *
+     * @param v the vertex
+     * @return the local index of v, between 0 and componentSize(component(v)) - 1
+     */
+    int local(int v) {
+        return local.get(v);
+    }
+
+    /**
+     * Get the number of vertices of a component
+     *
+     * @param c the component
+     * @return number of vertices in c
+     */
+    int componentSize(int c) {
+        return start.get(c + 1) - start.get(c);
+    }
+
+    /**
+     * Get a vertex of a component by its local index
+     *
+     * @param c     the component
+     * @param index the local index, between 0 and componentSize(c) - 1
+     * @return the vertex
+     */
+    int member(int c, int index) {
+        return members.get(start.get(c) + index);
+    }
+
+    /**
+     * Check whether two vertices are in the same component, i.e. whether there is a path between them
+     *
+     * @param u a vertex
+     * @param v another vertex
+     * @return true if u and v are in the same component
+     */
+    boolean connected(int u, int v) {
+        return component.get(u) == component.get(v);
+    }
+
+    /**
+     * Disjoint sets of the vertices 0 ... size() - 1, merged as the edges are added, by size and with path halving
+     */
+    static class UnionFind {
+        private int[] parent = new int[16]; // parent[v] is v for a root
+        private int[] weight = new int[16]; // weight[root] is the number of elements in the set of root
+        private int size; // number of elements
+
+        /**
+         * Add a new element in a set of its own
+         *
+         * @return the new element
+         */
+        int add() {
+            if (size == parent.length) {
+                parent = Arrays.copyOf(parent, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+            }
+            parent[size] = size;
+            weight[size] = 1;
+            return size++;
+        }
+
+        /**
+         * Merge the sets of two elements
+         *
+         * @param u an element
+         * @param v another element
+         */
+        void union(int u, int v) {
+            u = find(u);
+            v = find(v);
+            if (u == v)
+                return;
+            if (weight[u] < weight[v]) { // the smaller set goes under the larger one
+                int temp = u;
+                u = v;
+                v = temp;
+            }
+            parent[v] = u;
+            weight[u] += weight[v];
+        }
+
+        /**
+         * Find the root of the set of an element
+         *
+         * @param v the element
+         * @return the root
+         */
+        int find(int v) {
+            while (parent[v] != v) {
+                parent[v] = parent[parent[v]];
+                v = parent[v];
+            }
+            return v;
+        }
+
+        /**
+         * Get the number of elements
+         *
+         * @return number of elements
+         */
+        int size() {
+            return size;
+        }
+    }
+}
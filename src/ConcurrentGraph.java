@@ -0,0 +1,258 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   ConcurrentGraph.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// ConcurrentGraph.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Undirected and unweighted graph implementation that can be changed and read by several threads at the same time
+ * <p>
+ * The vertices and their neighbor sets are concurrent hash sets, so the reads never lock. A mutator that touches an
+ * edge locks the stripes of both of its vertices, in the order of the stripes so that two mutators never wait for
+ * each other. A vertex can only be removed under the lock of its stripe, so an edge can't be added to a vertex
+ * while it is being removed, and the graph stays symmetric: u is a neighbor of v iff v is a neighbor of u.
+ * <p>
+ * Removing a vertex costs O(degree), since only the neighbors of the vertex can have an edge to it.
+ *
+ * @param <E> type of a vertex
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class ConcurrentGraph<E> implements GraphADT<E> {
+    /**
+     * Default number of stripes
+     */
+    static final int DEFAULT_STRIPES = 64;
+
+    private final Map<E, Set<E>> edges; // neighbors of each vertex
+    private final Object[] stripes; // stripes[stripe(v)] guards the edges of v, the length is a power of 2
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     */
+    ConcurrentGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor for this class, with the number of stripes: more stripes let more mutators run at the same time
+     *
+     * @param stripes number of locks, rounded up to a power of 2
+     * @throws IllegalArgumentException if stripes is less than 1
+     */
+    ConcurrentGraph(int stripes) {
+        if (stripes < 1)
+            throw new IllegalArgumentException("stripes should be at least 1");
+
+        int length = 1;
+        while (length < stripes)
+            length <<= 1;
+        edges = new ConcurrentHashMap<>();
+        this.stripes = new Object[length];
+        for (int i = 0; i < this.stripes.length; i++)
+            this.stripes[i] = new Object();
+    }
+
+    /**
+     * Add new vertex to the graph
+     * <p>
+     * Valid argument conditions:
+     * 1. vertex should be non-null
+     * 2. vertex should not already exist in the graph
+     *
+     * @param vertex - the vertex to be added
+     * @return vertex if vertex added, else return null if vertex can not be added
+     * (also if valid conditions are violated)
+     */
+    @Override
+    public E addVertex(E vertex) {
+        if (vertex == null) // not null
+            return null;
+        // not duplicates, the check and the insertion are atomic
+        return edges.putIfAbsent(vertex, ConcurrentHashMap.newKeySet()) == null ? vertex : null;
+    }
+
+    /**
+     * Remove the vertex and associated edge associations from the graph, in O(degree)
+     * <p>
+     * Valid argument conditions:
+     * 1. vertex should be non-null
+     * 2. vertex should exist in the graph
+     *
+     * @param vertex - the vertex to be removed
+     * @return vertex if vertex removed, else return null if vertex and associated
+     * edges can not be removed (also if valid conditions are violated)
+     */
+    @Override
+    public E removeVertex(E vertex) {
+        if (vertex == null)
+            return null;
+
+        synchronized (stripe(vertex)) { // no edge of vertex can be added or removed meanwhile
+            Set<E> neighbors = edges.remove(vertex);
+            if (neighbors == null) // not within graph
+                return null;
+            for (E neighbor : neighbors) { // removes every edge to vertex
+                Set<E> reverse = edges.get(neighbor);
+                if (reverse != null)
+                    reverse.remove(vertex);
+            }
+            return vertex;
+        }
+    }
+
+    /**
+     * Add an edge between two vertices (edge is undirected and unweighted)
+     * <p>
+     * Valid argument conditions:
+     * 1. both the vertices should exist in the graph
+     * 2. vertex1 should not equal vertex2
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return true if edge added, else return false if edge can not be added (also
+     * if valid conditions are violated)
+     */
+    @Override
+    public boolean addEdge(E vertex1, E vertex2) {
+        if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+            return false;
+
+        return locked(vertex1, vertex2, () -> {
+            Set<E> neighbors1 = edges.get(vertex1), neighbors2 = edges.get(vertex2);
+            if (neighbors1 == null || neighbors2 == null) // not within graph
+                return false;
+            neighbors1.add(vertex2);
+            neighbors2.add(vertex1);
+            return true;
+        });
+    }
+
+    /**
+     * Remove the edge between two vertices (edge is undirected and unweighted)
+     * <p>
+     * Valid argument conditions:
+     * 1. both the vertices should exist in the graph
+     * 2. vertex1 should not equal vertex2
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return true if edge removed, else return false if edge can not be removed
+     * (also if valid conditions are violated)
+     */
+    @Override
+    public boolean removeEdge(E vertex1, E vertex2) {
+        if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+            return false;
+
+        return locked(vertex1, vertex2, () -> {
+            Set<E> neighbors1 = edges.get(vertex1), neighbors2 = edges.get(vertex2);
+            if (neighbors1 == null || neighbors2 == null) // not within graph
+                return false;
+            neighbors1.remove(vertex2);
+            neighbors2.remove(vertex1);
+            return true;
+        });
+    }
+
+    /**
+     * Check whether the two vertices are adjacent, without locking
+     * <p>
+     * Valid argument conditions:
+     * 1. both the vertices should exist in the graph
+     * 2. vertex1 should not equal vertex2
+     *
+     * @param vertex1 - the first vertex
+     * @param vertex2 - the second vertex
+     * @return true if both the vertices have an edge with each other, else return
+     * false if vertex1 and vertex2 are not connected (also if valid
+     * conditions are violated)
+     */
+    @Override
+    public boolean isAdjacent(E vertex1, E vertex2) {
+        if (vertex1 == null || vertex2 == null || vertex1.equals(vertex2))
+            return false;
+
+        Set<E> neighbors = edges.get(vertex1);
+        return neighbors != null && edges.containsKey(vertex2) && neighbors.contains(vertex2);
+    }
+
+    /**
+     * Get all the neighbor vertices of a vertex, without locking. The iterable is a read-only view,
+     * which reflects the edges added or removed while iterating, or not.
+     *
+     * @param vertex - the vertex
+     * @return an iterable for all the immediate connected neighbor vertices, or null if vertex is not in the graph
+     */
+    @Override
+    public Iterable<E> getNeighbors(E vertex) {
+        Set<E> neighbors = vertex == null ? null : edges.get(vertex);
+        return neighbors == null ? null : Collections.unmodifiableSet(neighbors);
+    }
+
+    /**
+     * Get all the vertices in the graph, without locking. The iterable is a read-only view,
+     * which reflects the vertices added or removed while iterating, or not.
+     *
+     * @return an iterable for all the vertices
+     */
+    @Override
+    public Iterable<E> getAllVertices() {
+        return Collections.unmodifiableSet(edges.keySet());
+    }
+
+    /**
+     * Run an action while holding the stripes of both the vertices, locked in the order of the stripes
+     *
+     * @param v1     the first vertex
+     * @param v2     the second vertex
+     * @param action the action
+     * @return the result of the action
+     */
+    private boolean locked(E v1, E v2, BooleanSupplier action) {
+        int i1 = index(v1), i2 = index(v2);
+        synchronized (stripes[Math.min(i1, i2)]) {
+            synchronized (stripes[Math.max(i1, i2)]) { // the same lock again if both are in a stripe
+                return action.getAsBoolean();
+            }
+        }
+    }
+
+    /**
+     * Get the lock guarding the edges of a vertex
+     */
+    private Object stripe(E vertex) {
+        return stripes[index(vertex)];
+    }
+
+    /**
+     * Get the index of the stripe of a vertex, spreading the high bits of the hash code to the low ones
+     */
+    private int index(E vertex) {
+        int h = vertex.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+}
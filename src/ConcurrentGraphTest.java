@@ -0,0 +1,150 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   ConcurrentGraphTest.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// ConcurrentGraphTest.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+
+import org.junit.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+import static org.junit.Assert.*;
+
+/**
+ * Junit test class to test class @see ConcurrentGraph. It passes every test of @see GraphTest,
+ * and stays consistent when it is changed by several threads at the same time.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class ConcurrentGraphTest extends GraphTest {
+    private static final int NUM_THREADS = 8;
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        this.graph = new ConcurrentGraph<>(4); // few stripes, so that the threads contend
+    }
+
+    @Test
+    public final void parallelAddEdgeShouldAddEveryEdge() throws Exception {
+        int numVertices = 200;
+        for (int v = 0; v < numVertices; v++)
+            this.graph.addVertex("v" + v);
+
+        // every thread adds its own random edges, which overlap with the ones of other threads
+        List<Set<String>> added = new ArrayList<>();
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            Set<String> edges = new HashSet<>();
+            for (int k = 0; k < 5000; k++) {
+                int v1 = random.nextInt(numVertices), v2 = random.nextInt(numVertices);
+                if (this.graph.addEdge("v" + v1, "v" + v2))
+                    edges.add(Math.min(v1, v2) + "-" + Math.max(v1, v2));
+            }
+            synchronized (added) {
+                added.add(edges);
+            }
+        });
+
+        Set<String> expected = new HashSet<>();
+        added.forEach(expected::addAll);
+        for (int v1 = 0; v1 < numVertices; v1++)
+            for (int v2 = v1 + 1; v2 < numVertices; v2++)
+                assertEquals(String.format("adjacency of vertex=v%d and vertex=v%d", v1, v2),
+                        expected.contains(v1 + "-" + v2), this.graph.isAdjacent("v" + v1, "v" + v2));
+        assertSymmetric();
+    }
+
+    @Test
+    public final void concurrentRemoveVertexShouldKeepGraphSymmetric() throws Exception {
+        int numVertices = 100;
+        for (int v = 0; v < numVertices; v++)
+            this.graph.addVertex("v" + v);
+
+        // half of the threads add and remove edges, the other half remove and add vertices back
+        runConcurrently(thread -> {
+            Random random = new Random(thread);
+            for (int k = 0; k < 20000; k++) {
+                String v1 = "v" + random.nextInt(numVertices), v2 = "v" + random.nextInt(numVertices);
+                if (thread % 2 == 0) {
+                    if (random.nextInt(4) == 0)
+                        this.graph.removeEdge(v1, v2);
+                    else
+                        this.graph.addEdge(v1, v2);
+                } else if (this.graph.removeVertex(v1) != null) {
+                    this.graph.addVertex(v1);
+                }
+            }
+        });
+
+        int verticesCount = 0;
+        for (String ignored : this.graph.getAllVertices())
+            verticesCount++;
+        assertEquals("num of vertices in the graph", numVertices, verticesCount);
+        assertSymmetric();
+    }
+
+    /**
+     * Assert that every neighbor of a vertex is in the graph and has the vertex as a neighbor
+     */
+    private void assertSymmetric() {
+        for (String itrVertex : this.graph.getAllVertices())
+            for (String itrNeighbor : this.graph.getNeighbors(itrVertex)) {
+                assertNotNull(String.format("neighbor=%s of vertex=%s in graph", itrNeighbor, itrVertex),
+                        this.graph.getNeighbors(itrNeighbor));
+                assertTrue(String.format("vertex=%s in neighbors of neighbor=%s", itrVertex, itrNeighbor),
+                        this.graph.isAdjacent(itrNeighbor, itrVertex));
+            }
+    }
+
+    /**
+     * Run a task on {@link #NUM_THREADS} threads, started at the same time, and rethrow the first failure
+     *
+     * @param task the task, given the number of its thread
+     */
+    private void runConcurrently(IntConsumer task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(thread);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        if (failure.get() != null)
+            throw new AssertionError(failure.get());
+    }
+}
@@ -0,0 +1,396 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   GraphMetrics.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// GraphMetrics.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timers, counters and latency histograms of a {@link GraphProcessor}, see {@link GraphProcessor#setMetrics}
+ * <p>
+ * - phase timers: the total time of each {@link Phase} of building the graph
+ * - counters: the word pairs compared and the edges added while building the graph, the words and edges visited
+ * by the searches of the queries, and the queries served of each {@link Query} type
+ * - latency histograms of each {@link Query} type, see {@link LatencyHistogram}
+ * <p>
+ * The cheapest queries take about 200 ns (a precomputed distance), while an uncontended LongAdder takes 15 ns and
+ * System.nanoTime() 45 ns. So each thread records into its own {@link Recorder} by plain ordered writes, and only
+ * one query in {@link #getSampleInterval()} of each thread is timed. The counters are exact, and the histograms
+ * hold an unbiased sample of the latencies. The recorders are summed when read, and the recorders of the threads
+ * that died are then merged into one, so there are no more recorders than live threads.
+ * <p>
+ * All the methods are thread safe. The values read while queries are running may miss the latest queries.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class GraphMetrics implements GraphMetricsMBean {
+    /**
+     * The timed phases of building a graph
+     */
+    public enum Phase {
+        /**
+         * Reading the words of a dictionary file in {@link GraphProcessor#populateGraph(String)}
+         */
+        LOAD,
+        /**
+         * Indexing the new words, then finding their edges and adding them to the graph
+         */
+        EDGES,
+        /**
+         * Preparing the data read by the queries: the tables of {@link GraphProcessor#shortestPathPrecomputation()},
+         * or the frozen graph, the cache and the landmarks built by populateGraph in the other query modes
+         */
+        PRECOMPUTE
+    }
+
+    /**
+     * The counted and timed queries
+     */
+    public enum Query {
+        /**
+         * {@link GraphProcessor#getShortestPath(String, String)}
+         */
+        PATH,
+        /**
+         * {@link GraphProcessor#getShortestDistance(String, String)}
+         */
+        DISTANCE,
+        /**
+         * A whole batch of {@link GraphProcessor#getShortestPaths} or {@link GraphProcessor#getShortestDistances}
+         */
+        BATCH,
+        /**
+         * {@link GraphProcessor#forEachWithin(String, int, java.util.function.ObjIntConsumer)}, with the actions
+         */
+        RADIUS,
+        /**
+         * {@link GraphProcessor#getAllShortestPaths} or {@link GraphProcessor#getKShortestPaths}, timed until the
+         * stream has no more paths or is closed, since the paths are only searched when the stream is read. A stream
+         * dropped before either is counted but not timed
+         */
+        ENUMERATION
+    }
+
+    /**
+     * Default number of queries of a thread per timed query
+     */
+    public static final int DEFAULT_SAMPLE_INTERVAL = 64;
+
+    private static final int QUERIES = Query.values().length;
+    private static final int VERTICES_VISITED = QUERIES, EDGES_VISITED = QUERIES + 1; // counters after the queries
+
+    private final int sampleInterval; // number of queries of a thread per timed query
+    private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length); // total time of each phase
+    private final AtomicLong adjacencyChecks = new AtomicLong(); // pairs compared by isAdjacent
+    private final AtomicLong edgesAdded = new AtomicLong(); // edges added to the graph
+    private final List<Recorder> recorders = new ArrayList<>(); // one per live thread that recorded, guarded by itself
+    private final Recorder retired; // the merged recorders of the threads that died, guarded by recorders
+    private final ThreadLocal<Recorder> recorder; // the recorder of each thread
+
+    /**
+     * Counters and histograms of the queries of one thread, only written by that thread
+     */
+    static final class Recorder {
+        private final WeakReference<Thread> owner = new WeakReference<>(Thread.currentThread()); // the writing thread
+        private final int sampleInterval; // number of queries per timed query
+        private final AtomicLongArray counts = new AtomicLongArray(QUERIES + 2); // queries of each type, then visits
+        private final LatencyHistogram[] latency = new LatencyHistogram[QUERIES]; // sampled latency of each type
+        private int countdown; // number of queries before the next timed one
+
+        private Recorder(int sampleInterval) {
+            this.sampleInterval = sampleInterval;
+            for (int q = 0; q < QUERIES; q++)
+                latency[q] = new LatencyHistogram();
+        }
+
+        /**
+         * Count a query that is starting, and start timing it if it is sampled
+         *
+         * @param query the type of the query
+         * @return the start time to pass to {@link #end(Query, long)}, Long.MIN_VALUE if the query isn't timed
+         */
+        long start(Query query) {
+            counts.lazySet(query.ordinal(), counts.get(query.ordinal()) + 1);
+            if (--countdown > 0)
+                return Long.MIN_VALUE;
+            countdown = sampleInterval;
+            return System.nanoTime();
+        }
+
+        /**
+         * Record the latency of a query counted by {@link #start(Query)}, if it is timed
+         *
+         * @param query the type of the query
+         * @param start the value returned by start
+         */
+        void end(Query query, long start) {
+            if (start != Long.MIN_VALUE)
+                latency[query.ordinal()].record(System.nanoTime() - start);
+        }
+
+        /**
+         * Count the work of a search run by a query
+         *
+         * @param vertices number of words visited
+         * @param edges    number of edges checked
+         */
+        void searched(long vertices, long edges) {
+            counts.lazySet(VERTICES_VISITED, counts.get(VERTICES_VISITED) + vertices);
+            counts.lazySet(EDGES_VISITED, counts.get(EDGES_VISITED) + edges);
+        }
+
+        /**
+         * Check whether the thread writing this recorder died, so that it won't be written anymore
+         *
+         * @return true if the thread terminated
+         */
+        private boolean ownerDied() {
+            Thread thread = owner.get();
+            return thread == null || !thread.isAlive();
+        }
+
+        /**
+         * Add the counters and the histograms of another recorder to this one
+         *
+         * @param other the recorder to add
+         */
+        private void add(Recorder other) {
+            for (int i = 0; i < counts.length(); i++)
+                counts.addAndGet(i, other.counts.get(i));
+            for (int q = 0; q < QUERIES; q++)
+                latency[q].add(other.latency[q]);
+        }
+    }
+
+    /**
+     * Constructor for this class, timing one query in {@link #DEFAULT_SAMPLE_INTERVAL} of each thread
+     */
+    public GraphMetrics() {
+        this(DEFAULT_SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param sampleInterval number of queries of a thread per timed query, 1 to time every query
+     * @throws IllegalArgumentException if sampleInterval is less than 1
+     */
+    public GraphMetrics(int sampleInterval) {
+        if (sampleInterval < 1)
+            throw new IllegalArgumentException("sampleInterval should be at least 1");
+        this.sampleInterval = sampleInterval;
+        retired = new Recorder(sampleInterval);
+        recorder = ThreadLocal.withInitial(() -> {
+            Recorder created = new Recorder(sampleInterval);
+            synchronized (recorders) {
+                retire();
+                recorders.add(created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Register these metrics in the platform MBean server, so that JMX clients such as jconsole can read them
+     *
+     * @param name the object name, e.g. "GraphProcessor:type=GraphMetrics"
+     * @return the registered name
+     * @throws JMException if the name is not valid or already registered
+     */
+    public ObjectName register(String name) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name)).getObjectName();
+    }
+
+    /**
+     * Get the recorder of the calling thread
+     *
+     * @return the recorder
+     */
+    Recorder recorder() {
+        return recorder.get();
+    }
+
+    /**
+     * Add the time of a phase
+     *
+     * @param phase the phase
+     * @param nanos its time in nanoseconds
+     */
+    void phase(Phase phase, long nanos) {
+        phaseNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    /**
+     * Count the work of finding the edges of new words
+     *
+     * @param checks number of word pairs compared by isAdjacent
+     * @param added  number of edges added to the graph
+     */
+    void edges(long checks, long added) {
+        adjacencyChecks.addAndGet(checks);
+        edgesAdded.addAndGet(added);
+    }
+
+    /**
+     * Get the number of queries of a thread per timed query
+     *
+     * @return the sample interval
+     */
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Get the total time of a phase
+     *
+     * @param phase the phase
+     * @return the time in nanoseconds
+     */
+    public long getPhaseNanos(Phase phase) {
+        return phaseNanos.get(phase.ordinal());
+    }
+
+    /**
+     * Get the number of queries of a type served
+     *
+     * @param query the type of the queries
+     * @return number of queries
+     */
+    public long getQueries(Query query) {
+        return sum(query.ordinal());
+    }
+
+    /**
+     * Get the sampled latencies of a type of query, of all the threads
+     *
+     * @param query the type of the queries
+     * @return a new histogram of the latencies in nanoseconds
+     */
+    public LatencyHistogram getLatency(Query query) {
+        LatencyHistogram merged = new LatencyHistogram();
+        synchronized (recorders) {
+            retire();
+            merged.add(retired.latency[query.ordinal()]);
+            for (Recorder each : recorders)
+                merged.add(each.latency[query.ordinal()]);
+        }
+        return merged;
+    }
+
+    @Override
+    public double getLoadMillis() {
+        return getPhaseNanos(Phase.LOAD) / 1e6;
+    }
+
+    @Override
+    public double getEdgesMillis() {
+        return getPhaseNanos(Phase.EDGES) / 1e6;
+    }
+
+    @Override
+    public double getPrecomputeMillis() {
+        return getPhaseNanos(Phase.PRECOMPUTE) / 1e6;
+    }
+
+    @Override
+    public long getAdjacencyChecks() {
+        return adjacencyChecks.get();
+    }
+
+    @Override
+    public long getEdgesAdded() {
+        return edgesAdded.get();
+    }
+
+    @Override
+    public long getVerticesVisited() {
+        return sum(VERTICES_VISITED);
+    }
+
+    @Override
+    public long getEdgesVisited() {
+        return sum(EDGES_VISITED);
+    }
+
+    @Override
+    public long getQueries() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++)
+            total += sum(q);
+        return total;
+    }
+
+    @Override
+    public long queries(String query) {
+        return getQueries(Query.valueOf(query));
+    }
+
+    @Override
+    public double latencyMicros(String query, double percentile) {
+        return getLatency(Query.valueOf(query)).getPercentile(percentile) / 1e3;
+    }
+
+    /**
+     * Get the number of recorders of live threads, for the tests
+     *
+     * @return number of recorders not retired yet
+     */
+    int recorderCount() {
+        synchronized (recorders) {
+            retire();
+            return recorders.size();
+        }
+    }
+
+    /**
+     * Merge the recorders of the threads that died into the retired one. The caller holds the lock of recorders
+     */
+    private void retire() {
+        for (Iterator<Recorder> it = recorders.iterator(); it.hasNext(); ) {
+            Recorder each = it.next();
+            if (each.ownerDied()) {
+                retired.add(each);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Sum a counter of all the recorders
+     */
+    private long sum(int counter) {
+        synchronized (recorders) {
+            retire();
+            long total = retired.counts.get(counter);
+            for (Recorder each : recorders)
+                total += each.counts.get(counter);
+            return total;
+        }
+    }
+}
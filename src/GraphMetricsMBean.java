@@ -0,0 +1,85 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   GraphMetricsMBean.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// GraphMetricsMBean.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+/**
+ * JMX view of {@link GraphMetrics}, see {@link GraphMetrics#register(String)}
+ * <p>
+ * The getters are the attributes shown by JMX clients such as jconsole. The values of a single query type are
+ * operations taking the name of a {@link GraphMetrics.Query}, since an attribute can't take an argument.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public interface GraphMetricsMBean {
+    /**
+     * @return total time spent reading dictionary files, in milliseconds
+     */
+    double getLoadMillis();
+
+    /**
+     * @return total time spent finding and adding the edges of new words, in milliseconds
+     */
+    double getEdgesMillis();
+
+    /**
+     * @return total time spent preparing the data read by the queries, in milliseconds
+     */
+    double getPrecomputeMillis();
+
+    /**
+     * @return number of word pairs compared by {@link WordProcessor#isAdjacent(String, String)} to find edges
+     */
+    long getAdjacencyChecks();
+
+    /**
+     * @return number of edges added to the graph
+     */
+    long getEdgesAdded();
+
+    /**
+     * @return number of words visited by the searches of the queries
+     */
+    long getVerticesVisited();
+
+    /**
+     * @return number of edges checked by the searches of the queries
+     */
+    long getEdgesVisited();
+
+    /**
+     * @return number of queries served, of all types
+     */
+    long getQueries();
+
+    /**
+     * @param query name of a {@link GraphMetrics.Query}
+     * @return number of queries of that type served
+     */
+    long queries(String query);
+
+    /**
+     * @param query      name of a {@link GraphMetrics.Query}
+     * @param percentile the percentile, between 0 and 100
+     * @return the percentile of the sampled latencies of that type, in microseconds
+     */
+    double latencyMicros(String query, double percentile);
+}
@@ -1,224 +1,1269 @@
-/////////////////////////////////////////////////////////////////////////////
-// Semester:         CS400 Spring 2018
-// PROJECT:          P4 Dictionary Graph
-// FILES:            Graph.java
-//                   GraphTest.java
-//                   GraphProcessor.java
-//                   GraphProcessorTest.java
-//                   WordProcessorTest.java
-//                   GraphADT.java
-//
-// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
-//                   Catherine Yan (chyan2@wisc.edu)
-//                   Jiazhi Yang (jyang436@wisc.edu)
-// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
-//
-// Bugs:             N/A
-// Source Credits:   N/A
-// Due date:         Monday, April 16th
-//
-// GraphProcessor.java
-//////////////////////////// 80 columns wide //////////////////////////////////
-
-import java.util.*;
-
-/**
- * This class adds additional functionality to the graph as a whole.
- * <p>
- * Contains an instance variable, {@link #graph}, which stores information for all the vertices and edges.
- *
- * @author sapan (sapan@cs.wisc.edu)
- * @see #populateGraph(String)
- * - loads a dictionary of words as vertices in the graph.
- * - finds possible edges between all pairs of vertices and adds these edges in the graph.
- * - returns number of vertices added as Integer.
- * - every call to this method will add to the existing graph.
- * - this method needs to be invoked first for other methods on shortest path computation to work.
- * @see #shortestPathPrecomputation()
- * - applies a shortest path algorithm to precompute data structures (that store shortest path data)
- * - the shortest path data structures are used later to
- * to quickly find the shortest path and distance between two vertices.
- * - this method is called after any call to populateGraph.
- * - It is not called again unless new graph information is added via populateGraph().
- * @see #getShortestPath(String, String)
- * - returns a list of vertices that constitute the shortest path between two given vertices,
- * computed using the precomputed data structures computed as part of {@link #shortestPathPrecomputation()}.
- * - {@link #shortestPathPrecomputation()} must have been invoked once before invoking this method.
- * @see #getShortestDistance(String, String)
- * - returns distance (number of edges) as an Integer for the shortest path between two given vertices
- * - this is computed using the precomputed data structures computed as part of {@link #shortestPathPrecomputation()}.
- * - {@link #shortestPathPrecomputation()} must have been invoked once before invoking this method.
- */
-public class GraphProcessor {
-
-    private GraphADT<String> graph;// Graph which stores the dictionary words and their associated connections
-    private List<String> wordList; // Store each word, similar to graph.getAllVertices() but with indices
-    private int size; // number of words
-    private int[][] distance; //Pre-computed data, distance[i][j] stores the distance between i and j
-    private int[][] predecessor; // Stores the predecessor of each vertex with shortest path
-
-
-    /**
-     * Constructor for this class. Initializes instances variables to set the starting state of the object
-     */
-    public GraphProcessor() {
-        graph = new Graph<>();
-
-    }
-
-    /**
-     * Builds a graph from the words in a file. Populate an internal graph, by adding words from the dictionary as vertices
-     * and finding and adding the corresponding connections (edges) between
-     * existing words.
-     * <p>
-     * Reads a word from the file and adds it as a vertex to a graph.
-     * Repeat for all words.
-     * <p>
-     * For all possible pairs of vertices, finds if the pair of vertices is adjacent {@link WordProcessor#isAdjacent(String, String)}
-     * If a pair is adjacent, adds an undirected and unweighted edge between the pair of vertices in the graph.
-     * <p>
-     * Log any issues encountered (print the issue details)
-     *
-     * @param filepath file path to the dictionary
-     * @return Integer the number of vertices (words) added; return -1 if file not found or if encountering other exceptions
-     */
-    public Integer populateGraph(String filepath) {
-        try { // read all data from filepath and add vertices to the graph
-            WordProcessor.getWordStream(filepath).forEach(graph::addVertex);
-
-            // Initialize wordList and put all the words in it
-            wordList = new ArrayList<>();
-            graph.getAllVertices().forEach(wordList::add);
-
-            // Add edges to the graph
-            for (String e1 : wordList)
-                for (String e2 : wordList)
-                    if (WordProcessor.isAdjacent(e1, e2))
-                        graph.addEdge(e1, e2);
-
-            return size = wordList.size();
-        } catch (Exception e) { // Error handling
-            System.out.println("Can not load word from file" + filepath);
-            return -1;
-        }
-    }
-
-    /**
-     * Computes shortest paths and distances between all possible pairs of vertices.
-     * This method is called after every set of updates in the graph to recompute the path information.
-     * Any shortest path algorithm can be used (Djikstra's or Floyd-Warshall recommended).
-     *
-     * @throws IllegalStateException if populateGraph wasn't called before this method
-     */
-    public void shortestPathPrecomputation() {
-        if (wordList == null) // error checking
-            throw new IllegalStateException("Please call populateGraph() first");
-
-        predecessor = new int[size][size];
-        distance = new int[size][size];
-        for (int i = 0; i < size; i++) {
-            Arrays.fill(predecessor[i], -1); // Initialize predecessor to -1
-            Arrays.fill(distance[i], -1); // Initialize distance to -1
-            distance[i][i] = 0; // except for diagonals
-        }
-
-
-        for (int src = 0; src < size; src++) { //BFS
-            // initialization
-            Queue<Integer> queue = new LinkedList<>();
-            boolean visited[] = new boolean[size]; // default is false
-            visited[src] = true;
-            queue.add(src);
-            while (!queue.isEmpty()) {
-                int cur = queue.remove();
-                for (String e : graph.getNeighbors(wordList.get(cur))) {
-                    int nxt = index(e);
-                    if (!visited[nxt]) {// for each unvisited neighbor
-                        visited[nxt] = true;
-                        queue.add(nxt);
-                        distance[src][nxt] = distance[src][cur] + 1; // update distance
-                        predecessor[src][nxt] = cur; // set predecessor
-                    }
-                }
-            }
-        }
-
-
-    }
-
-    /**
-     * Gets the list of words that create the shortest path between word1 and word2
-     * <p>
-     * Example: Given a dictionary,
-     * cat
-     * rat
-     * hat
-     * neat
-     * wheat
-     * kit
-     * shortest path between cat and wheat is the following list of words:
-     * [cat, hat, heat, wheat]
-     * <p>
-     * If word1 = word2, List will be empty.
-     * Both the arguments will always be present in the graph.
-     *
-     * @param word1 first word
-     * @param word2 second word
-     * @return List<String> list of the words
-     * @throws IllegalStateException if shortestPathPrecomputation wasn't called before this method
-     */
-    public List<String> getShortestPath(String word1, String word2) {
-        List<String> result = new ArrayList<>();
-
-        if (getShortestDistance(word1, word2) <= 0) // return empty list if word1==word2 or no path
-            return result;
-
-        int src = index(word2); // reverse src and des so that we can get the list in right order
-        for (int i = index(word1); i != -1; i = predecessor[src][i])
-            result.add(wordList.get(i));
-
-        return result;
-    }
-
-    /**
-     * Gets the distance of the shortest path between word1 and word2
-     * <p>
-     * Example: Given a dictionary,
-     * cat
-     * rat
-     * hat
-     * neat
-     * wheat
-     * kit
-     * distance of the shortest path between cat and wheat, [cat, hat, heat, wheat]
-     * = 3 (the number of edges in the shortest path)
-     * <p>
-     * Distance = -1 if no path found between words (true also for word1=word2)
-     * Both the arguments will always be present in the graph.
-     *
-     * @param word1 first word
-     * @param word2 second word
-     * @return Integer distance
-     * @throws IllegalStateException if shortestPathPrecomputation wasn't called before this method
-     */
-    public Integer getShortestDistance(String word1, String word2) {
-        if (distance == null) // error checking
-            throw new IllegalStateException("Please call shortestPathPrecomputation() first");
-
-        // if one of the word is null, or they are equal, or they doesn't exists, then return -1
-        if (word1 == null || word2 == null || word1.equals(word2) || index(word1) < 0 || index(word2) < 0)
-            return -1;
-
-        return distance[index(word1)][index(word2)];
-    }
-
-    /**
-     * return the index of word in the wordList
-     *
-     * @param word the word we want to find the index
-     * @return the index of word in the wordList
-     */
-    private int index(String word) {
-        return wordList.indexOf(word.trim().toUpperCase());
-    }
-}
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// GraphProcessor.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class adds additional functionality to the graph as a whole.
+ * <p>
+ * Contains an instance variable, {@link #graph}, which stores information for all the vertices and edges.
+ *
+ * @author sapan (sapan@cs.wisc.edu)
+ * @see #populateGraph(String)
+ * - loads a dictionary of words as vertices in the graph.
+ * - finds possible edges between all pairs of vertices and adds these edges in the graph.
+ * - returns number of vertices added as Integer.
+ * - every call to this method will add to the existing graph.
+ * - this method needs to be invoked first for other methods on shortest path computation to work.
+ * @see #shortestPathPrecomputation()
+ * - applies a shortest path algorithm to precompute data structures (that store shortest path data)
+ * - the shortest path data structures are used later to
+ * to quickly find the shortest path and distance between two vertices.
+ * - this method is called after any call to populateGraph.
+ * - It is not called again unless new graph information is added via populateGraph().
+ * @see #getShortestPath(String, String)
+ * - returns a list of vertices that constitute the shortest path between two given vertices,
+ * computed using the precomputed data structures computed as part of {@link #shortestPathPrecomputation()}.
+ * - {@link #shortestPathPrecomputation()} must have been invoked once before invoking this method.
+ * @see #getShortestDistance(String, String)
+ * - returns distance (number of edges) as an Integer for the shortest path between two given vertices
+ * - this is computed using the precomputed data structures computed as part of {@link #shortestPathPrecomputation()}.
+ * - {@link #shortestPathPrecomputation()} must have been invoked once before invoking this method.
+ * <p>
+ * The shortest path queries are answered in one of the {@link QueryMode}s, chosen when constructing the processor.
+ * <p>
+ * The queries are thread safe and never lock: they read an immutable {@link State}, which the methods changing the
+ * graph build aside and then publish by a single volatile write. So a query running during a reload sees either the
+ * old graph or the new one, never a half-built one. The methods changing the graph are synchronized with each other.
+ * <p>
+ * The phases of building the graph, the searches and the queries can be measured by {@link GraphMetrics}, see
+ * {@link #setMetrics(GraphMetrics)}. Without metrics, the only cost is a null check per query.
+ * <p>
+ * A processor with a parallelism above 1 keeps a pool of that many threads, each with its own search buffers,
+ * which {@link #close()} stops. The threads are daemon threads, so a processor that isn't closed doesn't keep the
+ * JVM alive.
+ */
+public class GraphProcessor implements AutoCloseable {
+
+    /**
+     * How {@link #getShortestPath(String, String)} and {@link #getShortestDistance(String, String)} are answered
+     */
+    public enum QueryMode {
+        /**
+         * From the all-pairs tables built by {@link #shortestPathPrecomputation()}: O(1) distance queries,
+         * but O(n^2) memory.
+         */
+        PRECOMPUTED,
+        /**
+         * By a bidirectional BFS per query ({@link BidirectionalSearch}): no precomputation and O(n) memory,
+         * so {@link #shortestPathPrecomputation()} isn't needed and does nothing.
+         */
+        LAZY,
+        /**
+         * From the BFS trees of recently queried words, kept in a {@link SourceCache}. A query between two words is
+         * answered by the tree of either one, or by a new BFS from the first word if neither is cached.
+         * Like {@link #LAZY}, {@link #shortestPathPrecomputation()} isn't needed and does nothing.
+         */
+        CACHED,
+        /**
+         * By a bidirectional BFS per query like {@link #LAZY}, unless the bounds from the distances to a few
+         * landmark words ({@link LandmarkOracle}) are tight already. The landmarks also answer
+         * {@link #getDistanceBounds(String, String)} in O(k) for k landmarks, without a search. They cost O(kn)
+         * memory and k BFS per graph, set by {@link #setLandmarkCount(int)}.
+         * Like {@link #LAZY}, {@link #shortestPathPrecomputation()} isn't needed and does nothing.
+         */
+        LANDMARK
+    }
+
+    /**
+     * Where the tables of {@link QueryMode#PRECOMPUTED} are stored, see {@link PathTable}
+     */
+    public enum PathStorage {
+        /**
+         * In heap buffers, so the tables count against the heap limit (-Xmx)
+         */
+        HEAP,
+        /**
+         * In direct buffers outside of the heap, so the garbage collector doesn't scan or copy them. They count against
+         * the direct memory limit (-XX:MaxDirectMemorySize, the same as -Xmx by default).
+         */
+        DIRECT,
+        /**
+         * In a memory-mapped temporary file, so the tables can be larger than the memory given to the JVM,
+         * and the operating system keeps the recently used rows in memory
+         */
+        MAPPED
+    }
+
+    /**
+     * Default number of BFS trees kept in {@link QueryMode#CACHED}
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    /**
+     * Default number of landmarks in {@link QueryMode#LANDMARK}
+     */
+    public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+    /**
+     * Everything the queries read, published as a whole and never changed afterwards
+     */
+    private static class State {
+        final CompactGraph graph; // the frozen graph, vertex ids are indices in wordList
+        final ComponentIndex components; // components of graph, words in different ones have no path
+        final PathTable paths; // Pre-computed distance and predecessor of every pair of words, only in PRECOMPUTED
+        final SourceCache cache; // BFS trees of recently queried words in graph, only in QueryMode.CACHED
+        final LandmarkOracle oracle; // landmarks of graph, only in QueryMode.LANDMARK
+
+        State(CompactGraph graph, ComponentIndex components, PathTable paths, SourceCache cache,
+              LandmarkOracle oracle) {
+            this.graph = graph;
+            this.components = components;
+            this.paths = paths;
+            this.cache = cache;
+            this.oracle = oracle;
+        }
+    }
+
+    /**
+     * Edges found by one thread of {@link #populateGraph(String)}, each packed as (index1 << 32 | index2) in a long
+     */
+    private static class EdgeBuffer {
+        private long[] edges = new long[1024];
+        private int size; // number of edges
+        private long checks; // number of word pairs compared by isAdjacent
+
+        void add(int v1, int v2) {
+            if (size == edges.length)
+                edges = Arrays.copyOf(edges, size * 2);
+            edges[size++] = (long) v1 << 32 | v2;
+        }
+    }
+
+    private GraphADT<String> graph;// Graph which stores the dictionary words and their associated connections
+    private CompactGraph compactGraph; // graph frozen for the BFS, vertex ids are indices in wordList
+    private ComponentIndex components; // connected components of compactGraph
+    private ComponentIndex.UnionFind unions; // connected words, merged as the edges are added to graph
+    private SignatureIndex signatures; // Index of the words in the graph, used to find the edges of a new word
+    private List<String> wordList; // Store each word, similar to graph.getAllVertices() but with indices, or null
+    private int size; // number of words
+    private boolean populated; // whether populateGraph has read a file successfully
+    private PathStorage storage; // where the precomputed paths are stored
+    private int parallelism; // number of threads used by populateGraph and shortestPathPrecomputation
+    private final ForkJoinPool pool; // threads of the parallel work, kept with their buffers; null if sequential
+    private QueryMode mode; // how the shortest path queries are answered
+    private ThreadLocal<BidirectionalSearch> searches; // buffers of the per query BFS, reused by each thread
+    private ThreadLocal<BreadthFirstSearch> traversals; // buffers of the single source BFS, reused by each thread
+    private ThreadLocal<MultiSourceSearch> batches; // buffers of the multi-source BFS, reused by each thread
+    private int cacheCapacity; // number of BFS trees kept in QueryMode.CACHED
+    private int landmarkCount; // number of landmarks in QueryMode.LANDMARK
+    private volatile State state; // what the queries read, null until the first graph is published
+    private volatile GraphMetrics metrics; // where the phases and the queries are measured, null if disabled
+
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     */
+    public GraphProcessor() {
+        this(QueryMode.PRECOMPUTED, 1);
+    }
+
+    /**
+     * Constructor for this class, with the number of threads used by {@link #populateGraph(String)} and
+     * {@link #shortestPathPrecomputation()}. The graph and the precomputed data don't depend on the number of threads.
+     *
+     * @param parallelism number of threads finding edges or running the BFS of different sources at the same time,
+     *                    1 for sequential
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public GraphProcessor(int parallelism) {
+        this(QueryMode.PRECOMPUTED, parallelism);
+    }
+
+    /**
+     * Constructor for this class, with the way the shortest path queries are answered
+     *
+     * @param mode how the shortest path queries are answered
+     */
+    public GraphProcessor(QueryMode mode) {
+        this(mode, 1);
+    }
+
+    /**
+     * Constructor for this class, with the way the shortest path queries are answered
+     * and the number of threads used by {@link #populateGraph(String)} and {@link #shortestPathPrecomputation()}
+     *
+     * @param mode        how the shortest path queries are answered
+     * @param parallelism number of threads finding edges or running the BFS of different sources at the same time,
+     *                    1 for sequential
+     * @throws IllegalArgumentException if mode is null or parallelism is less than 1
+     */
+    public GraphProcessor(QueryMode mode, int parallelism) {
+        if (mode == null)
+            throw new IllegalArgumentException("mode should not be null");
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism should be at least 1");
+
+        graph = new Graph<>();
+        signatures = new SignatureIndex();
+        unions = new ComponentIndex.UnionFind();
+        wordList = new ArrayList<>();
+        this.mode = mode;
+        this.parallelism = parallelism;
+        pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+        storage = PathStorage.HEAP;
+        searches = ThreadLocal.withInitial(BidirectionalSearch::new);
+        traversals = ThreadLocal.withInitial(BreadthFirstSearch::new);
+        batches = ThreadLocal.withInitial(MultiSourceSearch::new);
+        cacheCapacity = DEFAULT_CACHE_CAPACITY;
+        landmarkCount = DEFAULT_LANDMARK_COUNT;
+    }
+
+    /**
+     * Stop the threads of the parallel work. The processor keeps working, but runs that work on the calling thread.
+     * Calling it again does nothing.
+     */
+    @Override
+    public void close() {
+        if (pool != null)
+            pool.shutdown();
+    }
+
+    /**
+     * Change the number of BFS trees kept in {@link QueryMode#CACHED}. The cached trees and counters are dropped.
+     *
+     * @param capacity maximum number of trees, each costs 8 bytes per word in the graph
+     * @throws IllegalStateException    if the mode is not {@link QueryMode#CACHED}
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    public synchronized void setCacheCapacity(int capacity) {
+        if (mode != QueryMode.CACHED)
+            throw new IllegalStateException("Cache is only used in QueryMode.CACHED");
+        SourceCache cache = new SourceCache(capacity); // checks the capacity
+        cacheCapacity = capacity;
+        if (state != null)
+            state = new State(state.graph, state.components, null, cache, null);
+    }
+
+    /**
+     * Change the number of landmarks in {@link QueryMode#LANDMARK}. The landmarks of the current graph are picked
+     * again. More landmarks give tighter bounds, but cost more memory and a longer build.
+     *
+     * @param count number of landmarks, each costs 2 bytes per word in the graph and a BFS
+     * @throws IllegalStateException    if the mode is not {@link QueryMode#LANDMARK}
+     * @throws IllegalArgumentException if count is less than 1, or if the distances of count landmarks (at most one
+     *                                  per word) of the words in the graph don't fit in an array
+     */
+    public synchronized void setLandmarkCount(int count) {
+        if (mode != QueryMode.LANDMARK)
+            throw new IllegalStateException("Landmarks are only used in QueryMode.LANDMARK");
+        if (count < 1)
+            throw new IllegalArgumentException("count should be at least 1");
+        if ((long) size * Math.min(count, size) > LandmarkOracle.MAX_CELLS)
+            throw new IllegalArgumentException("count should be at most " + LandmarkOracle.MAX_CELLS / size
+                    + " for " + size + " words");
+        landmarkCount = count;
+        if (state != null)
+            state = queryState();
+    }
+
+    /**
+     * Change where the tables of {@link QueryMode#PRECOMPUTED} are stored. Tables that are already precomputed
+     * are moved to the new storage.
+     *
+     * @param storage where the tables are stored
+     * @throws IllegalArgumentException if storage is null
+     * @throws UncheckedIOException     if the temporary file of {@link PathStorage#MAPPED} can not be created or mapped
+     */
+    public synchronized void setPathStorage(PathStorage storage) {
+        if (storage == null)
+            throw new IllegalArgumentException("storage should not be null");
+        this.storage = storage;
+        State current = state;
+        if (current != null && current.paths != null && current.paths.getStorage() != storage)
+            state = new State(current.graph, current.components,
+                    new PathTable(current.paths, current.components, storage), null, null);
+    }
+
+    /**
+     * Get the cache of BFS trees, to read its hit/miss/eviction counters. Each graph published by
+     * {@link #populateGraph(String)} gets a new cache, since its trees can't be reused.
+     *
+     * @return the cache of the current graph, or null if the mode is not {@link QueryMode#CACHED}
+     * or there is no graph yet
+     */
+    public SourceCache getSourceCache() {
+        State current = state;
+        return current == null ? null : current.cache;
+    }
+
+    /**
+     * Start measuring the phases of building the graph and the queries in metrics, or stop measuring them.
+     * Several processors may share the same metrics.
+     *
+     * @param metrics where the phases and the queries are measured, or null to stop measuring them
+     */
+    public void setMetrics(GraphMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get the metrics set by {@link #setMetrics(GraphMetrics)}
+     *
+     * @return the metrics, or null if nothing is measured
+     */
+    public GraphMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Builds a graph from the words in a file. Populate an internal graph, by adding words from the dictionary as vertices
+     * and finding and adding the corresponding connections (edges) between
+     * existing words.
+     * <p>
+     * Reads a word from the file and adds it as a vertex to a graph.
+     * Repeat for all words.
+     * <p>
+     * For all possible pairs of vertices, finds if the pair of vertices is adjacent {@link WordProcessor#isAdjacent(String, String)}
+     * If a pair is adjacent, adds an undirected and unweighted edge between the pair of vertices in the graph.
+     * Only the pairs sharing a bucket in {@link #signatures} are compared, see {@link SignatureIndex}.
+     * <p>
+     * The new words are indexed first, then their edges are found on {@link #parallelism} threads, each collecting
+     * them in its own {@link EdgeBuffer}. An edge is only found from the later one of its words, so each is found
+     * once, and the buffers are merged into the graph at the end. If the file can't be read, nothing is added.
+     * <p>
+     * With {@link GraphMetrics}, reading the file, finding the edges and (except in {@link QueryMode#PRECOMPUTED})
+     * freezing the graph for the queries are timed as separate phases.
+     * <p>
+     * Log any issues encountered (print the issue details)
+     *
+     * @param filepath file path to the dictionary
+     * @return Integer the number of vertices (words) added; return -1 if file not found or if encountering other exceptions
+     */
+    public synchronized Integer populateGraph(String filepath) {
+        try { // read all data from filepath and add new vertices and their edges to the graph
+            if (graph == null) // loaded from a snapshot, see loadSnapshot
+                restoreGraph();
+
+            long start = System.nanoTime();
+            List<String> words = new ArrayList<>();
+            WordProcessor.forEachWord(filepath, words::add);
+            start = phase(GraphMetrics.Phase.LOAD, start);
+
+            // new words are appended, so the index of existing words never changes
+            int oldSize = wordList.size();
+            for (String e1 : words)
+                if (graph.addVertex(e1) != null) { // not already in the graph
+                    wordList.add(e1);
+                    signatures.add(e1); // numbered by its index in wordList
+                    unions.add();
+                }
+            populated = true;
+            size = wordList.size();
+
+            // only the index is read while finding the edges, so the new words are split across threads
+            List<EdgeBuffer> buffers = Collections.synchronizedList(new ArrayList<>());
+            ThreadLocal<EdgeBuffer> buffer = ThreadLocal.withInitial(() -> {
+                EdgeBuffer edges = new EdgeBuffer();
+                buffers.add(edges);
+                return edges;
+            });
+            forEach(oldSize, size, v -> {
+                EdgeBuffer edges = buffer.get();
+                edges.checks += signatures.forEachAdjacentId(wordList.get(v), u -> {
+                    if (u < v) // the edge of two new words is found from both of them
+                        edges.add(v, u);
+                });
+                return true;
+            });
+            long checks = 0, added = 0;
+            for (EdgeBuffer edges : buffers) { // merge
+                checks += edges.checks;
+                for (int k = 0; k < edges.size; k++) {
+                    int v1 = (int) (edges.edges[k] >>> 32), v2 = (int) edges.edges[k];
+                    if (graph.addEdge(wordList.get(v1), wordList.get(v2)))
+                        added++;
+                    unions.union(v1, v2);
+                }
+            }
+            GraphMetrics m = metrics;
+            if (m != null)
+                m.edges(checks, added);
+            start = phase(GraphMetrics.Phase.EDGES, start);
+
+            if (mode != QueryMode.PRECOMPUTED) {
+                if (freeze()) // queries run on the frozen graph
+                    state = queryState();
+                phase(GraphMetrics.Phase.PRECOMPUTE, start);
+            }
+
+            return size;
+        } catch (Exception e) { // Error handling
+            System.out.println("Can not load word from file" + filepath);
+            return -1;
+        }
+    }
+
+    /**
+     * Computes shortest paths and distances between all possible pairs of vertices.
+     * This method is called after every set of updates in the graph to recompute the path information.
+     * Any shortest path algorithm can be used (Djikstra's or Floyd-Warshall recommended).
+     * <p>
+     * Runs a BFS from every source, {@link MultiSourceSearch#LANES} sources at a time, see {@link MultiSourceSearch}.
+     * The BFS of different sources only read the graph and each fills its own rows of a new {@link PathTable},
+     * so the batches of sources are split across {@link #parallelism} threads. The queries keep reading the old
+     * table until the new one is complete.
+     * <p>
+     * Distances are first stored in bytes. If the graph turns out to have a longer shortest path than a byte can hold,
+     * the precomputation is restarted with a wide table, see {@link PathTable}.
+     * <p>
+     * If the paths were already precomputed before the last words were added, they are updated instead: the new words
+     * get a BFS each, and the rows of the old words are repaired from the new words only, see {@link PathRepair}.
+     * <p>
+     * The tables are stored as set by {@link #setPathStorage(PathStorage)}, on the heap by default.
+     * <p>
+     * With {@link GraphMetrics}, the precomputation is timed as the {@link GraphMetrics.Phase#PRECOMPUTE} phase.
+     *
+     * @throws IllegalStateException if populateGraph wasn't called before this method
+     * @throws UncheckedIOException  if the temporary file of {@link PathStorage#MAPPED} can not be created or mapped
+     */
+    public synchronized void shortestPathPrecomputation() {
+        if (!populated) // error checking
+            throw new IllegalStateException("Please call populateGraph() first");
+        if (mode != QueryMode.PRECOMPUTED) // nothing to precompute
+            return;
+        PathTable old = state == null ? null : state.paths;
+        if (old != null && old.size() == size) // no new words since the last precomputation
+            return;
+
+        long start = System.nanoTime();
+        try {
+            freeze(); // BFS runs on int ids instead of words
+            boolean wide = false;
+
+            if (old != null) { // only words were added, so update the old paths
+                PathTable table = new PathTable(old, components, storage);
+                ThreadLocal<PathRepair> repairs = ThreadLocal.withInitial(PathRepair::new);
+                if (forEach(0, size, src -> src < old.size()
+                        ? repairs.get().repair(compactGraph, old, table, src)
+                        : bfs(table, src))) {
+                    state = new State(compactGraph, components, table, null, null);
+                    return;
+                }
+                if (old.isWide())
+                    throw new IllegalStateException("Shortest path longer than " + PathTable.MAX_WIDE_DISTANCE);
+                wide = true; // a new path is too long for a byte, start over with a wide table
+            }
+
+            PathTable table = wide ? null : precompute(false);
+            if (table == null)
+                table = precompute(true);
+            if (table == null)
+                throw new IllegalStateException("Shortest path longer than " + PathTable.MAX_WIDE_DISTANCE);
+            state = new State(compactGraph, components, table, null, null);
+        } finally {
+            phase(GraphMetrics.Phase.PRECOMPUTE, start);
+        }
+    }
+
+    /**
+     * Write the graph, and the precomputed paths if they are up to date, to a binary snapshot, see {@link GraphSnapshot}
+     * <p>
+     * A processor can load the snapshot by {@link #loadSnapshot(String)} instead of building them again.
+     * The snapshot is written to a temporary file in the same directory, which only replaces the file once it is
+     * complete and on the disk.
+     *
+     * @param filepath file path of the snapshot, replaced if it exists
+     * @throws IllegalStateException if populateGraph wasn't called before this method
+     * @throws IOException           exception resulting from writing the filepath (the previous file is kept then)
+     */
+    public synchronized void saveSnapshot(String filepath) throws IOException {
+        if (!populated) // error checking
+            throw new IllegalStateException("Please call populateGraph() first");
+
+        freeze();
+        PathTable paths = state == null ? null : state.paths;
+        new GraphSnapshot(compactGraph, components, paths != null && paths.size() == size ? paths : null)
+                .save(filepath);
+    }
+
+    /**
+     * Replace the graph by the one in a snapshot written by {@link #saveSnapshot(String)}, verifying every checksum
+     * of the snapshot, see {@link #loadSnapshot(String, boolean)}
+     *
+     * @param filepath file path of the snapshot
+     * @return Integer the number of vertices (words) loaded
+     * @throws IOException exception resulting from reading the filepath, or if the file is not a valid snapshot
+     *                     (the processor is not changed then)
+     */
+    public Integer loadSnapshot(String filepath) throws IOException {
+        return loadSnapshot(filepath, true);
+    }
+
+    /**
+     * Replace the graph by the one in a snapshot written by {@link #saveSnapshot(String)}. The file is mapped
+     * read-only, and the graph and the paths are read from the mapping by the queries, without being copied:
+     * the file is only read as the queries need it.
+     * <p>
+     * With verify, the checksums of the whole file are checked before the graph is replaced, which reads the file
+     * once. Without it, only the sizes are checked, so the load takes about the same time for any size of file, but
+     * a file corrupted elsewhere gives wrong answers or IndexOutOfBoundsExceptions in the queries.
+     * <p>
+     * In {@link QueryMode#PRECOMPUTED}, the precomputed paths are loaded as well if the snapshot has them, so the
+     * queries can be answered without {@link #shortestPathPrecomputation()}. They are ignored in the other modes.
+     * They stay in the mapped file ({@link PathStorage#MAPPED}) until {@link #setPathStorage(PathStorage)} moves them.
+     * <p>
+     * Only the frozen graph is loaded; the mutable graph and the signature index are rebuilt from it by the next
+     * {@link #populateGraph(String)}, if any.
+     *
+     * @param filepath file path of the snapshot
+     * @param verify   whether the checksums of the whole file are checked, not only of its sizes
+     * @return Integer the number of vertices (words) loaded
+     * @throws IOException exception resulting from reading the filepath, or if the file is not a valid snapshot
+     *                     (the processor is not changed then)
+     */
+    public synchronized Integer loadSnapshot(String filepath, boolean verify) throws IOException {
+        GraphSnapshot snapshot = GraphSnapshot.load(filepath, verify);
+
+        compactGraph = snapshot.graph;
+        components = snapshot.components;
+        size = compactGraph.size();
+        wordList = null;
+        graph = null;
+        signatures = null;
+        unions = null;
+        populated = true;
+        state = mode == QueryMode.PRECOMPUTED ? new State(compactGraph, components, snapshot.paths, null, null)
+                : queryState();
+        return size;
+    }
+
+    /**
+     * Freeze {@link #graph} into {@link #compactGraph}, unless it is already up to date.
+     * Words are only added, so the frozen graph is up to date iff it has all the words.
+     *
+     * @return true if the graph is frozen again, false if it was up to date
+     */
+    private boolean freeze() {
+        if (compactGraph != null && compactGraph.size() == size)
+            return false;
+        compactGraph = new CompactGraph(graph, wordList);
+        components = new ComponentIndex(unions);
+        return true;
+    }
+
+    /**
+     * Build the state queried in {@link QueryMode#LAZY}, {@link QueryMode#CACHED} and {@link QueryMode#LANDMARK}
+     * from {@link #compactGraph}: an empty cache in CACHED, and the landmarks in LANDMARK
+     *
+     * @return the state to be published
+     */
+    private State queryState() {
+        return new State(compactGraph, components, null,
+                mode == QueryMode.CACHED ? new SourceCache(cacheCapacity) : null,
+                mode == QueryMode.LANDMARK ? new LandmarkOracle(compactGraph, components, landmarkCount) : null);
+    }
+
+    /**
+     * Rebuild {@link #graph}, {@link #wordList}, {@link #signatures} and {@link #unions} from {@link #compactGraph},
+     * after they are dropped by {@link #loadSnapshot(String, boolean)}
+     */
+    private void restoreGraph() {
+        graph = new Graph<>();
+        wordList = new ArrayList<>(size);
+        signatures = new SignatureIndex();
+        unions = new ComponentIndex.UnionFind();
+        for (int v = 0; v < size; v++) {
+            String word = compactGraph.vertex(v);
+            graph.addVertex(word);
+            wordList.add(word);
+            signatures.add(word);
+            unions.add();
+        }
+        for (int v = 0; v < size; v++)
+            for (int k = 0, degree = compactGraph.degree(v); k < degree; k++) {
+                graph.addEdge(wordList.get(v), wordList.get(compactGraph.neighbor(v, k)));
+                unions.union(v, compactGraph.neighbor(v, k));
+            }
+    }
+
+    /**
+     * Fill a new table by a BFS from every source, running the sources of each component in batches of
+     * {@link MultiSourceSearch#LANES}. A word alone in its component has nothing to fill, so it is skipped.
+     *
+     * @param wide whether distances are stored in chars instead of bytes
+     * @return the table, or null if a distance doesn't fit in it
+     */
+    private PathTable precompute(boolean wide) {
+        PathTable table = new PathTable(components, wide, storage);
+        int lanes = MultiSourceSearch.LANES;
+        long[] batchList = new long[size]; // (component << 32 | local index of the first source) of each batch
+        int numBatches = 0;
+        for (int c = 0; c < components.count(); c++)
+            for (int first = 0; components.componentSize(c) > 1 && first < components.componentSize(c); first += lanes)
+                batchList[numBatches++] = (long) c << 32 | first;
+        return forEach(0, numBatches, batch -> {
+            int c = (int) (batchList[batch] >>> 32), first = (int) batchList[batch];
+            return batches.get().search(compactGraph, components, c, first,
+                    Math.min(lanes, components.componentSize(c) - first), table);
+        }) ? table : null;
+    }
+
+    /**
+     * Run a task for every index (e.g. every source) from from to to - 1, on {@link #parallelism} threads
+     *
+     * @param from the first index
+     * @param to   the index after the last one
+     * @param task the task of an index, returning false if its result doesn't fit in the table
+     * @return false if a task returned false (the rest of the indices are skipped), true otherwise
+     */
+    private boolean forEach(int from, int to, IntPredicate task) {
+        if (pool == null || pool.isShutdown()) // sequential, or closed
+            return IntStream.range(from, to).allMatch(task);
+
+        try { // parallel stream submitted from the pool runs in the pool instead of the common pool
+            return pool.submit(() -> IntStream.range(from, to).parallel().allMatch(task)).get();
+        } catch (RejectedExecutionException e) { // closed meanwhile
+            return IntStream.range(from, to).allMatch(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parallel task interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Parallel task failed", e.getCause());
+        }
+    }
+
+    /**
+     * Run a BFS from src, and store the distances and predecessors in the row src of table
+     *
+     * @param table the table to store the result
+     * @param src   index of the source word
+     * @return false if a distance doesn't fit in the table, true otherwise
+     */
+    private boolean bfs(PathTable table, int src) {
+        BreadthFirstSearch search = traversals.get();
+        search.search(compactGraph, src);
+        return table.setRow(src, search.distance(), search.predecessor());
+    }
+
+    /**
+     * Gets the list of words that create the shortest path between word1 and word2
+     * <p>
+     * Example: Given a dictionary,
+     * cat
+     * rat
+     * hat
+     * neat
+     * wheat
+     * kit
+     * shortest path between cat and wheat is the following list of words:
+     * [cat, hat, heat, wheat]
+     * <p>
+     * If word1 = word2, List will be empty.
+     * Both the arguments will always be present in the graph.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return List<String> list of the words
+     * @throws IllegalStateException if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public List<String> getShortestPath(String word1, String word2) {
+        GraphMetrics m = metrics;
+        if (m == null)
+            return shortestPath(word1, word2);
+        GraphMetrics.Recorder recorder = m.recorder();
+        long start = recorder.start(GraphMetrics.Query.PATH);
+        List<String> path = shortestPath(word1, word2);
+        recorder.end(GraphMetrics.Query.PATH, start);
+        return path;
+    }
+
+    /**
+     * Answer {@link #getShortestPath(String, String)}
+     */
+    private List<String> shortestPath(String word1, String word2) {
+        State current = queryableState();
+        List<String> result = new ArrayList<>();
+
+        // if one of the word is null, or they are equal, then return empty list
+        if (word1 == null || word2 == null || word1.equals(word2))
+            return result;
+
+        int i = index(current, word1), j = index(current, word2);
+        if (i < 0 || j < 0) // one of the word doesn't exists
+            return result;
+        if (!current.components.connected(i, j)) // no path between different components
+            return result;
+
+        if (mode == QueryMode.LAZY || mode == QueryMode.LANDMARK) {
+            BidirectionalSearch search = searches.get();
+            int distance = search.search(current.graph, i, j);
+            searched(search);
+            if (distance > 0) // no path if i==j or not connected
+                for (int v : search.path())
+                    result.add(current.graph.vertex(v));
+        } else if (mode == QueryMode.CACHED) {
+            SourceCache.Tree tree = tree(current, i, j);
+            if (tree.distance[tree.root == i ? j : i] > 0) { // no path if i==j or not connected
+                for (int v = tree.root == i ? j : i; v != -1; v = tree.predecessor[v])
+                    result.add(current.graph.vertex(v));
+                if (tree.root == i) // walked from j to i
+                    Collections.reverse(result);
+            }
+        } else if (current.paths.distance(i, j) > 0) { // no path if i==j or not connected
+            // use j as src so that we can get the list in right order
+            for (int v = i; v != -1; v = current.paths.predecessor(j, v))
+                result.add(current.graph.vertex(v));
+        }
+        return result;
+    }
+
+    /**
+     * Gets the distance of the shortest path between word1 and word2
+     * <p>
+     * Example: Given a dictionary,
+     * cat
+     * rat
+     * hat
+     * neat
+     * wheat
+     * kit
+     * distance of the shortest path between cat and wheat, [cat, hat, heat, wheat]
+     * = 3 (the number of edges in the shortest path)
+     * <p>
+     * Distance = -1 if no path found between words (true also for word1=word2)
+     * Both the arguments will always be present in the graph.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return Integer distance
+     * @throws IllegalStateException if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public Integer getShortestDistance(String word1, String word2) {
+        GraphMetrics m = metrics;
+        if (m == null)
+            return shortestDistance(word1, word2);
+        GraphMetrics.Recorder recorder = m.recorder();
+        long start = recorder.start(GraphMetrics.Query.DISTANCE);
+        int distance = shortestDistance(word1, word2);
+        recorder.end(GraphMetrics.Query.DISTANCE, start);
+        return distance;
+    }
+
+    /**
+     * Answer {@link #getShortestDistance(String, String)}
+     */
+    private int shortestDistance(String word1, String word2) {
+        State current = queryableState();
+
+        // if one of the word is null, or they are equal, then return -1
+        if (word1 == null || word2 == null || word1.equals(word2))
+            return -1;
+
+        int i = index(current, word1), j = index(current, word2);
+        if (i < 0 || j < 0) // one of the word doesn't exists
+            return -1;
+        if (!current.components.connected(i, j)) // no path between different components
+            return -1;
+
+        if (mode == QueryMode.LANDMARK) {
+            int lower = current.oracle.lowerBound(i, j);
+            if (lower == current.oracle.upperBound(i, j)) // the bounds are tight, no search needed
+                return lower;
+        }
+        if (mode == QueryMode.LAZY || mode == QueryMode.LANDMARK) {
+            BidirectionalSearch search = searches.get();
+            int distance = search.search(current.graph, i, j);
+            searched(search);
+            return distance;
+        }
+        if (mode == QueryMode.CACHED) {
+            SourceCache.Tree tree = tree(current, i, j);
+            return tree.distance[tree.root == i ? j : i];
+        }
+        return current.paths.distance(i, j);
+    }
+
+    /**
+     * Gets a lower and an upper bound on the distance of the shortest path between word1 and word2
+     * <p>
+     * In {@link QueryMode#LANDMARK}, the bounds come from the distances to the landmarks by the triangle inequality,
+     * in O(k) for k landmarks, without a search. In the other modes, both are the exact distance.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return {lower bound, upper bound}; {-1, -1} if there is no path (true also for word1=word2)
+     * @throws IllegalStateException if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public int[] getDistanceBounds(String word1, String word2) {
+        State current = queryableState();
+        if (mode != QueryMode.LANDMARK) {
+            int distance = getShortestDistance(word1, word2);
+            return new int[]{distance, distance};
+        }
+
+        // if one of the word is null, or they are equal, then there is no path
+        if (word1 == null || word2 == null || word1.equals(word2))
+            return new int[]{-1, -1};
+        int i = index(current, word1), j = index(current, word2);
+        if (i < 0 || j < 0 || !current.components.connected(i, j))
+            return new int[]{-1, -1};
+        return new int[]{current.oracle.lowerBound(i, j), current.oracle.upperBound(i, j)};
+    }
+
+    /**
+     * Passes every word within radius steps of word to action, with its distance from word, nearest words first
+     * <p>
+     * Example: for the dictionary of {@link #getShortestDistance(String, String)}, the words within 2 steps of cat
+     * are hat and rat at distance 1, and heat at distance 2.
+     * <p>
+     * The words are found by a BFS from word that stops at the radius, so a query only costs the words it reports
+     * and their edges, and it doesn't allocate anything once the buffers of the thread are large enough. The words
+     * are passed to action while the BFS buffers are in use, so the thread gets new buffers for the queries
+     * run by action, if any. Answered from the graph in every {@link QueryMode}.
+     *
+     * @param word   the center of the neighborhood
+     * @param radius maximum distance from word
+     * @param action called with each word and its distance, except word itself
+     * @return number of words passed to action; 0 if word is null or not in the graph
+     * @throws IllegalArgumentException if radius is negative
+     * @throws IllegalStateException    if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public int forEachWithin(String word, int radius, ObjIntConsumer<String> action) {
+        GraphMetrics m = metrics;
+        if (m == null)
+            return within(word, radius, action);
+        GraphMetrics.Recorder recorder = m.recorder();
+        long start = recorder.start(GraphMetrics.Query.RADIUS);
+        int count = within(word, radius, action);
+        recorder.end(GraphMetrics.Query.RADIUS, start);
+        return count;
+    }
+
+    /**
+     * Answer {@link #forEachWithin(String, int, ObjIntConsumer)}
+     */
+    private int within(String word, int radius, ObjIntConsumer<String> action) {
+        State current = queryableState();
+        if (radius < 0)
+            throw new IllegalArgumentException("radius should not be negative");
+        if (word == null)
+            return 0;
+        int src = index(current, word);
+        if (src < 0) // the word doesn't exists
+            return 0;
+
+        BidirectionalSearch search = searches.get();
+        searches.remove(); // a query run by action gets its own buffers
+        try {
+            int count = search.searchWithin(current.graph, src, radius);
+            searched(search);
+            for (int q = 1; q < count; q++) { // the first one is word itself
+                int v = search.visited(q);
+                action.accept(current.graph.vertex(v), search.distanceFromSource(v));
+            }
+            return count - 1;
+        } finally {
+            searches.set(search);
+        }
+    }
+
+    /**
+     * Gets all the shortest paths between word1 and word2, found lazily one at a time
+     * <p>
+     * There can be exponentially many shortest paths, so they are not collected: a bidirectional BFS finds the
+     * words on any of them, then each path is found when the stream asks for it, in O(d * degree) for distance d.
+     * The memory stays O(n) however many are read. See {@link PathEnumerator}.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @param limit maximum number of paths
+     * @return stream of the shortest paths, each from word1 to word2; empty if no path (true also for word1=word2)
+     * @throws IllegalArgumentException if limit is negative
+     * @throws IllegalStateException    if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public Stream<List<String>> getAllShortestPaths(String word1, String word2, int limit) {
+        return enumerate(word1, word2, limit, true);
+    }
+
+    /**
+     * Gets the k shortest simple paths (without a repeated word) between word1 and word2, found lazily one at a
+     * time, in order of length: first the shortest paths like {@link #getAllShortestPaths(String, String, int)},
+     * then the paths one step longer, and so on
+     * <p>
+     * The paths are found by Yen's algorithm, so each one costs at most L + 1 searches for L steps, however few
+     * paths there are, and the stream ends as soon as there is no other path. The candidates are kept until the
+     * stream is dropped, so the memory grows with k. See {@link KShortestPaths}.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @param k     maximum number of paths
+     * @return stream of the paths, each from word1 to word2; empty if no path (true also for word1=word2)
+     * @throws IllegalArgumentException if k is negative
+     * @throws IllegalStateException    if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public Stream<List<String>> getKShortestPaths(String word1, String word2, int k) {
+        return enumerate(word1, word2, k, false);
+    }
+
+    /**
+     * Enumerate the paths between word1 and word2 for {@link #getAllShortestPaths(String, String, int)} and
+     * {@link #getKShortestPaths(String, String, int)}
+     *
+     * @param word1        first word
+     * @param word2        second word
+     * @param limit        maximum number of paths
+     * @param shortestOnly whether only the shortest paths are enumerated
+     * @return stream of the paths, timed until it ends or is closed if the query is sampled by the metrics
+     */
+    private Stream<List<String>> enumerate(String word1, String word2, int limit, boolean shortestOnly) {
+        GraphMetrics m = metrics;
+        if (m == null)
+            return paths(word1, word2, limit, shortestOnly);
+        long start = m.recorder().start(GraphMetrics.Query.ENUMERATION);
+        Stream<List<String>> paths = paths(word1, word2, limit, shortestOnly);
+        if (start == Long.MIN_VALUE)
+            return paths;
+
+        // the stream may be read by another thread, so the latency goes to the recorder of the thread ending it
+        AtomicBoolean ended = new AtomicBoolean();
+        Runnable end = () -> {
+            if (ended.compareAndSet(false, true))
+                m.recorder().end(GraphMetrics.Query.ENUMERATION, start);
+        };
+        Spliterator<List<String>> inner = paths.spliterator();
+        Spliterator<List<String>> timed = new Spliterators.AbstractSpliterator<List<String>>(
+                inner.estimateSize(), inner.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED)) {
+            @Override
+            public boolean tryAdvance(Consumer<? super List<String>> action) {
+                if (inner.tryAdvance(action))
+                    return true;
+                end.run();
+                return false;
+            }
+        };
+        return StreamSupport.stream(timed, false).onClose(paths::close).onClose(end);
+    }
+
+    /**
+     * Build the stream of {@link #enumerate(String, String, int, boolean)}
+     */
+    private Stream<List<String>> paths(String word1, String word2, int limit, boolean shortestOnly) {
+        State current = queryableState();
+        if (limit < 0)
+            throw new IllegalArgumentException("limit should not be negative");
+
+        // if one of the word is null, or they are equal, then there is no path
+        if (word1 == null || word2 == null || word1.equals(word2))
+            return Stream.empty();
+        int i = index(current, word1), j = index(current, word2);
+        if (i < 0 || j < 0 || i == j || !current.components.connected(i, j))
+            return Stream.empty();
+
+        Iterator<int[]> enumerator;
+        if (shortestOnly) {
+            BidirectionalSearch search = searches.get();
+            search.search(current.graph, i, j);
+            searched(search);
+            enumerator = new PathEnumerator(current.graph, i, j, search);
+        } else {
+            enumerator = new KShortestPaths(current.graph, i, j);
+        }
+        Spliterator<int[]> paths = Spliterators.spliteratorUnknownSize(enumerator,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(paths, false).limit(limit).map(path -> {
+            String[] words = new String[path.length];
+            for (int k = 0; k < path.length; k++)
+                words[k] = current.graph.vertex(path[k]);
+            return Arrays.asList(words);
+        });
+    }
+
+    /**
+     * Gets the distances of the shortest paths between a batch of word pairs, the same as
+     * {@link #getShortestDistance(String, String)} of each pair, but cheaper for large batches
+     * <p>
+     * The pairs are grouped by their first word (the source). In {@link QueryMode#LAZY} and
+     * {@link QueryMode#LANDMARK}, a group large enough is answered by a single BFS from its source instead of a
+     * search per pair, and in {@link QueryMode#CACHED}, a group takes the tree of its source from the cache once
+     * instead of competing with the other sources for it. The groups are answered on {@link #parallelism} threads.
+     *
+     * @param words1 first word of each pair
+     * @param words2 second word of each pair, in the same order
+     * @return distance of each pair, -1 if no path (true also for word1=word2)
+     * @throws IllegalArgumentException if words1 and words2 don't have the same size
+     * @throws IllegalStateException    if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public int[] getShortestDistances(List<String> words1, List<String> words2) {
+        int[] distance = new int[words1.size()];
+        batch(words1, words2, distance, null);
+        return distance;
+    }
+
+    /**
+     * Gets the shortest paths between a batch of word pairs, grouped like
+     * {@link #getShortestDistances(List, List)}
+     *
+     * @param words1 first word of each pair
+     * @param words2 second word of each pair, in the same order
+     * @return the distance and the path of each pair
+     * @throws IllegalArgumentException if words1 and words2 don't have the same size
+     * @throws IllegalStateException    if shortestPathPrecomputation wasn't called before this method
+     * (populateGraph in the other {@link QueryMode}s)
+     */
+    public PathBatch getShortestPaths(List<String> words1, List<String> words2) {
+        int[] distance = new int[words1.size()];
+        int[][] paths = new int[words1.size()][];
+        State current = batch(words1, words2, distance, paths);
+
+        int[] start = new int[distance.length + 1];
+        for (int k = 0; k < distance.length; k++)
+            start[k + 1] = start[k] + (paths[k] == null ? 0 : paths[k].length);
+        String[] words = new String[start[distance.length]];
+        for (int k = 0; k < distance.length; k++)
+            for (int s = 0; paths[k] != null && s < paths[k].length; s++)
+                words[start[k] + s] = current.graph.vertex(paths[k][s]);
+        return new PathBatch(distance, start, words);
+    }
+
+    /**
+     * Answer a batch of pairs, see {@link #getShortestDistances(List, List)}
+     *
+     * @param words1   first word of each pair
+     * @param words2   second word of each pair, in the same order
+     * @param distance distance[k] is set to the distance of pair k, -1 if no path
+     * @param paths    paths[k] is set to the ids on the path of pair k if its distance is more than 0,
+     *                 or null if only the distances are needed
+     * @return the state that was queried
+     */
+    private State batch(List<String> words1, List<String> words2, int[] distance, int[][] paths) {
+        GraphMetrics m = metrics;
+        if (m == null)
+            return group(words1, words2, distance, paths);
+        GraphMetrics.Recorder recorder = m.recorder();
+        long start = recorder.start(GraphMetrics.Query.BATCH);
+        State current = group(words1, words2, distance, paths);
+        recorder.end(GraphMetrics.Query.BATCH, start);
+        return current;
+    }
+
+    /**
+     * Group the pairs of {@link #batch(List, List, int[], int[][])} by source, and answer each group
+     */
+    private State group(List<String> words1, List<String> words2, int[] distance, int[][] paths) {
+        State current = queryableState();
+        if (words1.size() != words2.size())
+            throw new IllegalArgumentException("words1 and words2 should have the same size");
+
+        // group the pairs that may have a path by their first word, each pair packed as (first word << 32 | k)
+        int numPairs = words1.size(), numKeys = 0;
+        int[] to = new int[numPairs];
+        long[] keys = new long[numPairs];
+        for (int k = 0; k < numPairs; k++) {
+            String word1 = words1.get(k), word2 = words2.get(k);
+            distance[k] = -1;
+            if (word1 == null || word2 == null || word1.equals(word2))
+                continue;
+            int i = index(current, word1), j = index(current, word2);
+            if (i < 0 || j < 0 || !current.components.connected(i, j))
+                continue;
+            to[k] = j;
+            keys[numKeys++] = (long) i << 32 | k;
+        }
+        Arrays.sort(keys, 0, numKeys);
+        int[] groups = new int[numKeys + 1]; // the pairs of group g are keys[groups[g]] ... keys[groups[g + 1] - 1]
+        int numGroups = 0;
+        for (int g = 0; g < numKeys; g++)
+            if (g == 0 || keys[g] >>> 32 != keys[g - 1] >>> 32)
+                groups[numGroups++] = g;
+        groups[numGroups] = numKeys;
+
+        forEach(0, numGroups, g -> {
+            answer(current, keys, groups[g], groups[g + 1], to, distance, paths);
+            return true;
+        });
+        return current;
+    }
+
+    /**
+     * Answer the pairs keys[first] ... keys[last - 1] of {@link #batch(List, List, int[], int[][])}, which all
+     * have the source keys[first] >>> 32
+     */
+    private void answer(State current, long[] keys, int first, int last, int[] to, int[] distance, int[][] paths) {
+        int src = (int) (keys[first] >>> 32);
+        int componentSize = current.components.componentSize(current.components.component(src));
+        SourceCache.Tree tree = null; // BFS tree of src or of the destination, if the pairs are answered by one
+        if (mode == QueryMode.CACHED) // a single pair can take the tree of either word, a group takes the one of src
+            tree = tree(current, src, last - first == 1 ? to[(int) keys[first]] : src);
+        else if ((mode == QueryMode.LAZY || mode == QueryMode.LANDMARK) && last - first >= treeThreshold(componentSize)) {
+            BreadthFirstSearch search = traversals.get(); // the buffers are only read by this group
+            search.search(current.graph, src);
+            searched(search);
+            tree = new SourceCache.Tree(src, search.distance(), search.predecessor());
+        }
+
+        for (int g = first; g < last; g++) {
+            int k = (int) keys[g], dst = to[k];
+            if (tree != null) {
+                int other = tree.root == src ? dst : src;
+                distance[k] = tree.distance[other];
+                if (paths != null && distance[k] > 0) { // walked from other to the root, so backward if it is src
+                    int[] path = paths[k] = new int[distance[k] + 1];
+                    int s = tree.root == src ? distance[k] : 0, step = tree.root == src ? -1 : 1;
+                    for (int v = other; v != -1; v = tree.predecessor[v], s += step)
+                        path[s] = v;
+                }
+            } else if (mode == QueryMode.PRECOMPUTED) {
+                distance[k] = current.paths.distance(src, dst);
+                if (paths != null && distance[k] > 0) { // use dst as the source of the table, like getShortestPath
+                    int[] path = paths[k] = new int[distance[k] + 1];
+                    for (int v = src, s = 0; v != -1; v = current.paths.predecessor(dst, v))
+                        path[s++] = v;
+                }
+            } else {
+                BidirectionalSearch search = searches.get();
+                distance[k] = search.search(current.graph, src, dst);
+                searched(search);
+                if (paths != null && distance[k] > 0)
+                    paths[k] = search.path();
+            }
+        }
+    }
+
+    /**
+     * Get the number of pairs sharing a source from which one BFS tree is cheaper than a bidirectional search per pair,
+     * in a component of size words. Measured on random pairs, a BFS costs as much as about 5 * size^0.3
+     * bidirectional searches: 40 for 1k words, 130 for 25k words and 200 for 400k words.
+     *
+     * @param size number of words in the component
+     * @return the smallest group answered by a BFS tree
+     */
+    private static int treeThreshold(int size) {
+        return (int) (5 * Math.pow(size, 0.3));
+    }
+
+    /**
+     * Get a BFS tree rooted at i or j from the cache of current, or run a BFS from i and cache it if neither is cached
+     *
+     * @param current the state being queried
+     * @param i       index of the first word
+     * @param j       index of the second word
+     * @return the BFS tree of i or j
+     */
+    private SourceCache.Tree tree(State current, int i, int j) {
+        SourceCache.Tree tree = current.cache.get(i, j);
+        if (tree == null) { // the cached tree needs its own copy of the buffers
+            BreadthFirstSearch search = traversals.get();
+            search.search(current.graph, i);
+            searched(search);
+            int[] distance = Arrays.copyOf(search.distance(), current.graph.size());
+            int[] predecessor = Arrays.copyOf(search.predecessor(), current.graph.size());
+            tree = new SourceCache.Tree(i, distance, predecessor);
+            current.cache.put(tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Count the words and edges visited by the last search of a query, if it is measured
+     *
+     * @param search the search that just ran
+     */
+    private void searched(BidirectionalSearch search) {
+        GraphMetrics m = metrics;
+        if (m != null)
+            m.recorder().searched(search.lastVisits(), search.lastInspections());
+    }
+
+    /**
+     * Count the words and edges visited by the last BFS of a query, if it is measured
+     *
+     * @param search the BFS that just ran
+     */
+    private void searched(BreadthFirstSearch search) {
+        GraphMetrics m = metrics;
+        if (m != null)
+            m.recorder().searched(search.lastVisits(), search.lastInspections());
+    }
+
+    /**
+     * Add the time from start to now to a phase, if it is measured
+     *
+     * @param phase the phase that just ended
+     * @param start the value of System.nanoTime() when it started
+     * @return now, the start of the next phase
+     */
+    private long phase(GraphMetrics.Phase phase, long start) {
+        long now = System.nanoTime();
+        GraphMetrics m = metrics;
+        if (m != null)
+            m.phase(phase, now - start);
+        return now;
+    }
+
+    /**
+     * Get the state to be queried, after checking that the data needed by the shortest path queries is ready.
+     * A query should read the returned state only, since {@link #state} may be replaced during the query.
+     *
+     * @return the current state
+     * @throws IllegalStateException if shortestPathPrecomputation wasn't called yet
+     *                               (populateGraph in the other {@link QueryMode}s)
+     */
+    private State queryableState() {
+        State current = state;
+        if (mode != QueryMode.PRECOMPUTED && current == null)
+            throw new IllegalStateException("Please call populateGraph() first");
+        if (mode == QueryMode.PRECOMPUTED && (current == null || current.paths == null))
+            throw new IllegalStateException("Please call shortestPathPrecomputation() first");
+        return current;
+    }
+
+    /**
+     * return the index of word in the graph of current in O(1)
+     *
+     * @param current the state being queried
+     * @param word    the word we want to find the index
+     * @return the index of word in the wordList, or -1 if it is not in the graph
+     */
+    private static int index(State current, String word) {
+        return current.graph.id(word.trim().toUpperCase());
+    }
+}
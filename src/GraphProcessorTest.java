@@ -23,12 +23,32 @@
 import org.junit.*;
 import org.junit.rules.Timeout;
 
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 /**
@@ -200,4 +220,768 @@ public class GraphProcessorTest {
         gp1.getShortestDistance("", "");
         fail("Exception not thrown, precomputatoin has yet to been called");
     }
+
+    /**
+     * Tests whether SignatureIndex finds exactly the pairs that WordProcessor.isAdjacent accepts
+     */
+    @Test
+    public void test14_signature_index_matches_pairwise_comparison() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        SignatureIndex index = new SignatureIndex();
+        words.forEach(index::add);
+
+        for (String e1 : words) {
+            Set<String> expected = new HashSet<>();
+            for (String e2 : words)
+                if (WordProcessor.isAdjacent(e1, e2))
+                    expected.add(e2);
+            Set<String> actual = new HashSet<>();
+            index.forEachAdjacent(e1, actual::add);
+            assertEquals("Adjacent words of " + e1, expected, actual);
+        }
+    }
+
+    /**
+     * Tests whether the parallel precomputation gives exactly the same distances and paths as the sequential one,
+     * and whether the parallel batches still run after the threads are stopped by close
+     */
+    @Test
+    public void test15_parallel_precomputation_matches_sequential() throws IOException {
+        gp1 = new GraphProcessor(4);
+        gp1.populateGraph("word_list.txt");
+        gp1.shortestPathPrecomputation();
+
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        for (String e1 : words)
+            for (String e2 : words) {
+                assertEquals("Shortest distance from " + e1 + " to " + e2, gp.getShortestDistance(e1, e2), gp1.getShortestDistance(e1, e2));
+                assertEquals("Shortest path from " + e1 + " to " + e2, gp.getShortestPath(e1, e2), gp1.getShortestPath(e1, e2));
+            }
+
+        List<String> reversed = new ArrayList<>(words);
+        Collections.reverse(reversed);
+        int[] expected = gp.getShortestDistances(words, reversed);
+        GraphProcessor lazy = new GraphProcessor(GraphProcessor.QueryMode.LAZY, 4);
+        lazy.populateGraph("word_list.txt");
+        for (int n = 0; n < 3; n++)
+            assertTrue("Parallel batch " + n, Arrays.equals(expected, lazy.getShortestDistances(words, reversed)));
+        lazy.close();
+        lazy.close();
+        assertTrue("Batch after close", Arrays.equals(expected, lazy.getShortestDistances(words, reversed)));
+        assertEquals("Reload after close", words.size(), (int) lazy.populateGraph("word_list.txt"));
+    }
+
+    /**
+     * Tests whether the lazy mode gives the same distances as the precomputed tables, and a valid shortest path
+     */
+    @Test
+    public void test16_lazy_mode_matches_precomputed() throws IOException {
+        gp1 = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+        gp1.populateGraph("word_list.txt"); // no precomputation needed
+        assertMatchesPrecomputed(gp1);
+    }
+
+    /**
+     * Tests whether distances longer than a byte can hold are precomputed correctly,
+     * using a chain of 300 words A, AA, AAA, ...
+     */
+    @Test
+    public void test17_long_shortest_path() throws IOException {
+        Path file = Files.createTempFile("chain", ".txt");
+        try {
+            List<String> chain = new ArrayList<>();
+            for (StringBuilder sb = new StringBuilder("A"); sb.length() <= 300; sb.append('A'))
+                chain.add(sb.toString());
+            Files.write(file, chain);
+
+            gp1 = new GraphProcessor();
+            gp1.populateGraph(file.toString());
+            gp1.shortestPathPrecomputation();
+            assertEquals("Shortest distance from A to A*300 is", 299, (int) gp1.getShortestDistance(chain.get(0), chain.get(299)));
+            assertEquals("Shortest distance from A*300 to A*2 is", 298, (int) gp1.getShortestDistance(chain.get(299), chain.get(1)));
+            assertEquals("Shortest path from A to A*300 is", chain, gp1.getShortestPath(chain.get(0), chain.get(299)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests whether the cached mode gives the same distances as the precomputed tables, and a valid shortest path,
+     * and whether the cache counts its hits, misses and evictions
+     */
+    @Test
+    public void test18_cached_mode_matches_precomputed() throws IOException {
+        gp1 = new GraphProcessor(GraphProcessor.QueryMode.CACHED);
+        gp1.setCacheCapacity(10);
+        gp1.populateGraph("word_list.txt"); // no precomputation needed
+        assertMatchesPrecomputed(gp1);
+
+        SourceCache cache = gp1.getSourceCache();
+        assertEquals("Number of cached trees", 10, cache.getSize());
+        assertTrue("Cache hits", cache.getHits() > 0);
+        assertEquals("Cache evictions", cache.getMisses() - 10, cache.getEvictions());
+
+        long misses = cache.getMisses();
+        gp1.getShortestPath("BELLIES", "JOLLIES");
+        gp1.getShortestPath("JOLLIES", "BELLIES"); // answered by the tree of BELLIES
+        assertEquals("Cache misses", misses + 1, cache.getMisses());
+
+        gp1.populateGraph("word_list.txt"); // no new words, the cache is kept
+        assertEquals("Number of cached trees", 10, cache.getSize());
+    }
+
+    /**
+     * Tests whether precomputing after adding words to an already precomputed graph
+     * gives the same distances as precomputing the whole graph at once
+     */
+    @Test
+    public void test19_incremental_precomputation() throws IOException {
+        Path file = Files.createTempFile("half", ".txt");
+        try {
+            List<String> lines = Files.readAllLines(Paths.get("word_list.txt"));
+            Files.write(file, lines.subList(0, lines.size() / 2));
+
+            gp1 = new GraphProcessor();
+            gp1.populateGraph(file.toString());
+            gp1.shortestPathPrecomputation();
+            gp1.populateGraph("word_list.txt"); // adds the second half
+            gp1.shortestPathPrecomputation();
+            assertMatchesPrecomputed(gp1);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests whether a processor loading a snapshot, with or without verifying it, answers the same queries as the
+     * processor that saved it, saves the same snapshot again, and can still add words after loading
+     */
+    @Test
+    public void test20_snapshot_round_trip() throws IOException {
+        Path snapshot = Files.createTempFile("graph", ".snapshot");
+        Path copy = Files.createTempFile("copy", ".snapshot");
+        Path file = Files.createTempFile("new", ".txt");
+        try {
+            gp.saveSnapshot(snapshot.toString());
+
+            gp1 = new GraphProcessor();
+            assertEquals("Number of vertices loaded", 427, (int) gp1.loadSnapshot(snapshot.toString()));
+            assertMatchesPrecomputed(gp1); // no precomputation needed
+            assertEquals("Path from snapshot", gp.getShortestPath("BELLIES", "JOLLIES"),
+                    gp1.getShortestPath("BELLIES", "JOLLIES"));
+            GraphProcessor unverified = new GraphProcessor();
+            assertEquals("Number of vertices loaded unverified", 427,
+                    (int) unverified.loadSnapshot(snapshot.toString(), false));
+            assertMatchesPrecomputed(unverified);
+            unverified.saveSnapshot(copy.toString());
+            assertArrayEquals("Snapshot of the loaded graph", Files.readAllBytes(snapshot), Files.readAllBytes(copy));
+
+            GraphProcessor lazy = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+            lazy.loadSnapshot(snapshot.toString());
+            Files.write(file, Arrays.asList("BELLIEZ"));
+            assertEquals("Number of vertices after adding a word", 428, (int) lazy.populateGraph(file.toString()));
+            assertEquals("Distance to the new word", 1, (int) lazy.getShortestDistance("BELLIES", "BELLIEZ"));
+            assertEquals("Distance through the new word", gp.getShortestDistance("BELLIES", "JOLLIES") + 1,
+                    (int) lazy.getShortestDistance("BELLIEZ", "JOLLIES"));
+        } finally {
+            Files.delete(snapshot);
+            Files.delete(copy);
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests whether a corrupted snapshot is rejected without changing the processor
+     */
+    @Test
+    public void test21_corrupted_snapshot() throws IOException {
+        Path snapshot = Files.createTempFile("graph", ".snapshot");
+        try {
+            gp.saveSnapshot(snapshot.toString());
+            byte[] bytes = Files.readAllBytes(snapshot);
+            bytes[bytes.length / 2] ^= 1;
+            Files.write(snapshot, bytes);
+
+            gp1 = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+            gp1.populateGraph("word_list.txt");
+            try {
+                gp1.loadSnapshot(snapshot.toString());
+                fail("Corrupted snapshot should not be loaded");
+            } catch (IOException e) {
+                assertTrue("Checksum mismatch", e.getMessage().contains("checksum"));
+            }
+            assertMatchesPrecomputed(gp1);
+
+            // the sizes are verified even if the rest isn't: the first one is after the magic, version and length
+            bytes[bytes.length / 2] ^= 1;
+            bytes[16] ^= 1;
+            Files.write(snapshot, bytes);
+            try {
+                gp1.loadSnapshot(snapshot.toString(), false);
+                fail("Snapshot with corrupted sizes should not be loaded");
+            } catch (IOException e) {
+                assertTrue("Checksum mismatch of the sizes", e.getMessage().contains("checksum"));
+            }
+            assertMatchesPrecomputed(gp1);
+        } finally {
+            Files.delete(snapshot);
+        }
+    }
+
+    /**
+     * Tests whether the tables stored off the heap give exactly the same distances and paths as the ones on the heap
+     */
+    @Test
+    public void test22_off_heap_path_storage() throws IOException {
+        for (GraphProcessor.PathStorage storage : GraphProcessor.PathStorage.values()) {
+            gp1 = new GraphProcessor();
+            gp1.setPathStorage(storage);
+            gp1.populateGraph("word_list.txt");
+            gp1.shortestPathPrecomputation();
+            assertMatchesPrecomputed(gp1);
+            assertEquals("Path stored in " + storage, gp.getShortestPath("BELLIES", "JOLLIES"),
+                    gp1.getShortestPath("BELLIES", "JOLLIES"));
+        }
+
+        gp.setPathStorage(GraphProcessor.PathStorage.MAPPED); // moves the precomputed tables
+        gp1 = new GraphProcessor();
+        gp1.populateGraph("word_list.txt");
+        gp1.shortestPathPrecomputation();
+        assertMatchesPrecomputed(gp1);
+    }
+
+    /**
+     * Tests whether queries running during a reload only see the graph before or after the reload,
+     * in every query mode
+     */
+    @Test
+    public void test23_queries_during_reload() throws Exception {
+        Path file = Files.createTempFile("half", ".txt");
+        try {
+            List<String> lines = Files.readAllLines(Paths.get("word_list.txt"));
+            Files.write(file, lines.subList(0, lines.size() / 2));
+            List<String> words = new ArrayList<>();
+            WordProcessor.getWordStream(file.toString()).distinct().forEach(words::add);
+
+            for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values()) {
+                GraphProcessor processor = new GraphProcessor(mode);
+                processor.populateGraph(file.toString());
+                processor.shortestPathPrecomputation();
+                int[][] before = new int[words.size()][words.size()];
+                for (int i = 0; i < words.size(); i++)
+                    for (int j = 0; j < words.size(); j++)
+                        before[i][j] = processor.getShortestDistance(words.get(i), words.get(j));
+
+                AtomicBoolean reloaded = new AtomicBoolean();
+                AtomicReference<Throwable> failure = new AtomicReference<>();
+                List<Thread> readers = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    Random random = new Random(t);
+                    readers.add(new Thread(() -> {
+                        try {
+                            for (int k = 0; !reloaded.get() || k < 1000; k++) {
+                                int i = random.nextInt(words.size()), j = random.nextInt(words.size());
+                                String e1 = words.get(i), e2 = words.get(j);
+                                int after = gp.getShortestDistance(e1, e2);
+                                int distance = processor.getShortestDistance(e1, e2);
+                                assertTrue(mode + " distance from " + e1 + " to " + e2 + ": " + distance,
+                                        distance == before[i][j] || distance == after);
+                                int length = processor.getShortestPath(e1, e2).size() - 1;
+                                assertTrue(mode + " path from " + e1 + " to " + e2 + ": " + length,
+                                        length == before[i][j] || length == after);
+                            }
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        }
+                    }));
+                }
+                readers.forEach(Thread::start);
+                processor.populateGraph("word_list.txt"); // adds the second half
+                processor.shortestPathPrecomputation();
+                reloaded.set(true);
+                for (Thread reader : readers)
+                    reader.join();
+
+                if (failure.get() != null)
+                    throw new AssertionError(failure.get());
+                assertMatchesPrecomputed(processor);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests whether the multi-source BFS fills exactly the same table as a single source BFS from every source,
+     * including the predecessors
+     */
+    @Test
+    public void test24_multi_source_search_matches_single_source() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        Graph<String> graph = new Graph<>();
+        words.forEach(graph::addVertex);
+        for (String e1 : words)
+            for (String e2 : words)
+                if (WordProcessor.isAdjacent(e1, e2))
+                    graph.addEdge(e1, e2);
+        CompactGraph compact = new CompactGraph(graph, words);
+        ComponentIndex components = ComponentIndex.of(compact);
+        int size = compact.size();
+
+        PathTable expected = new PathTable(components, false, GraphProcessor.PathStorage.HEAP);
+        BreadthFirstSearch bfs = new BreadthFirstSearch();
+        for (int src = 0; src < size; src++) {
+            bfs.search(compact, src);
+            expected.setRow(src, bfs.distance(), bfs.predecessor());
+        }
+        PathTable actual = new PathTable(components, false, GraphProcessor.PathStorage.HEAP);
+        MultiSourceSearch search = new MultiSourceSearch();
+        for (int c = 0; c < components.count(); c++)
+            for (int first = 0; first < components.componentSize(c); first += MultiSourceSearch.LANES)
+                assertTrue("Distances fit in bytes", search.search(compact, components, c, first,
+                        Math.min(MultiSourceSearch.LANES, components.componentSize(c) - first), actual));
+
+        for (int i = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                assertEquals("Distance from " + words.get(i) + " to " + words.get(j), expected.distance(i, j), actual.distance(i, j));
+                assertEquals("Predecessor of " + words.get(j) + " from " + words.get(i), expected.predecessor(i, j), actual.predecessor(i, j));
+            }
+    }
+
+    /**
+     * Tests whether the union-find built while adding edges puts two words in the same component iff there is a path
+     * between them, and numbers the words of each component in order
+     */
+    @Test
+    public void test25_component_index_matches_reachability() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        ComponentIndex.UnionFind sets = new ComponentIndex.UnionFind();
+        words.forEach(word -> sets.add());
+        for (int i = 0; i < words.size(); i++)
+            for (int j = 0; j < i; j++)
+                if (WordProcessor.isAdjacent(words.get(i), words.get(j)))
+                    sets.union(i, j);
+        ComponentIndex components = new ComponentIndex(sets);
+
+        assertTrue("More than one component", components.count() > 1);
+        for (int i = 0; i < words.size(); i++) {
+            int c = components.component(i);
+            assertEquals("Local index of " + words.get(i), i, components.member(c, components.local(i)));
+            if (components.local(i) > 0)
+                assertTrue("Order of the words in component " + c, components.member(c, components.local(i) - 1) < i);
+            for (int j = 0; j < words.size(); j++)
+                if (i != j)
+                    assertEquals("Component of " + words.get(i) + " and " + words.get(j),
+                            gp.getShortestDistance(words.get(i), words.get(j)) >= 0, components.connected(i, j));
+        }
+    }
+
+    /**
+     * Tests whether the landmark mode gives the same distances as the precomputed tables, and a valid shortest path,
+     * and whether its bounds contain the exact distance
+     */
+    @Test
+    public void test26_landmark_mode_matches_precomputed() throws IOException {
+        gp1 = new GraphProcessor(GraphProcessor.QueryMode.LANDMARK);
+        gp1.setLandmarkCount(4);
+        gp1.populateGraph("word_list.txt"); // no precomputation needed
+        assertMatchesPrecomputed(gp1);
+
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        for (String e1 : words)
+            for (String e2 : words) {
+                int distance = gp.getShortestDistance(e1, e2);
+                int[] bounds = gp1.getDistanceBounds(e1, e2);
+                if (distance < 0) {
+                    assertEquals("Bounds from " + e1 + " to " + e2, Arrays.asList(-1, -1), Arrays.asList(bounds[0], bounds[1]));
+                } else {
+                    assertTrue("Lower bound from " + e1 + " to " + e2, 0 < bounds[0] && bounds[0] <= distance);
+                    assertTrue("Upper bound from " + e1 + " to " + e2, distance <= bounds[1]);
+                }
+            }
+        assertEquals("Exact bounds in other modes", Arrays.asList(2, 2),
+                Arrays.asList(gp.getDistanceBounds("BELLIES", "JOLLIES")[0], gp.getDistanceBounds("BELLIES", "JOLLIES")[1]));
+
+        // more landmarks than words: every word of a component is picked, so the bounds are exact
+        gp1.setLandmarkCount(Integer.MAX_VALUE);
+        assertMatchesPrecomputed(gp1);
+        for (String e1 : words)
+            for (String e2 : words) {
+                int[] bounds = gp1.getDistanceBounds(e1, e2);
+                assertEquals("Exact bounds from " + e1 + " to " + e2, bounds[0], bounds[1]);
+            }
+
+        try {
+            gp.setLandmarkCount(4);
+            fail("Landmarks are only used in QueryMode.LANDMARK");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether the batch queries agree with the single pair queries in every mode, both for the groups
+     * answered by a BFS tree (every word paired with CHARGE) and for the pairs answered one by one, and whether a
+     * group looks up the cached tree of its source once
+     */
+    @Test
+    public void test27_batch_queries_match_single_queries() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        List<String> words1 = new ArrayList<>(), words2 = new ArrayList<>();
+        Random random = new Random(27);
+        for (String word : words) {
+            words1.add(random.nextBoolean() ? word : "CHARGE"); // a large group, and pairs ending at its source
+            words2.add(words1.get(words1.size() - 1).equals(word) ? "CHARGE" : word);
+            words1.add(words.get(random.nextInt(words.size())));
+            words2.add(words.get(random.nextInt(words.size())));
+        }
+        words1.addAll(Arrays.asList(null, "BELLIES", "BELLIES", "NOTAWORD", " jollies "));
+        words2.addAll(Arrays.asList("BELLIES", null, "BELLIES", "BELLIES", "BELLIES"));
+
+        for (GraphProcessor.QueryMode mode : GraphProcessor.QueryMode.values()) {
+            GraphProcessor processor = mode == GraphProcessor.QueryMode.PRECOMPUTED ? gp : new GraphProcessor(mode);
+            processor.populateGraph("word_list.txt");
+            int[] distances = processor.getShortestDistances(words1, words2);
+            PathBatch batch = processor.getShortestPaths(words1, words2);
+            assertEquals("Size of the batch in " + mode, words1.size(), batch.size());
+            for (int k = 0; k < words1.size(); k++) {
+                String e1 = words1.get(k), e2 = words2.get(k);
+                int distance = gp.getShortestDistance(e1, e2);
+                assertEquals("Batch distance from " + e1 + " to " + e2 + " in " + mode, distance, distances[k]);
+                assertEquals("Batch path distance from " + e1 + " to " + e2 + " in " + mode, distance, batch.distance(k));
+
+                List<String> path = batch.path(k);
+                assertEquals("Length of batch path from " + e1 + " to " + e2 + " in " + mode,
+                        distance > 0 ? distance + 1 : 0, path.size());
+                for (int i = 1; i < path.size(); i++)
+                    assertTrue("Adjacent words in path " + path, WordProcessor.isAdjacent(path.get(i - 1), path.get(i)));
+                List<String> expected = gp.getShortestPath(e1, e2);
+                if (distance > 0)
+                    assertEquals("Batch path from " + e1 + " to " + e2 + " in " + mode,
+                            Arrays.asList(expected.get(0), expected.get(distance)), Arrays.asList(path.get(0), path.get(distance)));
+            }
+        }
+
+        // a group takes the tree of its source from the cache once
+        GraphProcessor cached = new GraphProcessor(GraphProcessor.QueryMode.CACHED);
+        cached.populateGraph("word_list.txt");
+        cached.getShortestDistances(Collections.nCopies(words.size(), "CHARGE"), words);
+        SourceCache cache = cached.getSourceCache();
+        assertEquals("Cache lookups of a group", 1, cache.getHits() + cache.getMisses());
+
+        try {
+            gp.getShortestDistances(words1, words2.subList(1, words2.size()));
+            fail("The two lists of words should have the same size");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether all the shortest paths are enumerated, each once, and whether the k shortest paths start with
+     * them and continue with longer simple paths in order of length
+     */
+    @Test
+    public void test28_path_enumeration() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        Random random = new Random(28);
+        for (int n = 0; n < 200; n++) {
+            String e1 = words.get(random.nextInt(words.size())), e2 = words.get(random.nextInt(words.size()));
+            int distance = gp.getShortestDistance(e1, e2);
+            List<List<String>> all = gp.getAllShortestPaths(e1, e2, Integer.MAX_VALUE).collect(Collectors.toList());
+            if (distance <= 0) {
+                assertEquals("No paths from " + e1 + " to " + e2, 0, all.size());
+                continue;
+            }
+            assertEquals("Number of shortest paths from " + e1 + " to " + e2,
+                    countShortestPaths(words, e1, e2, new HashMap<>()), all.size());
+            assertEquals("Distinct shortest paths from " + e1 + " to " + e2, all.size(), new HashSet<>(all).size());
+            assertTrue("Shortest paths contain getShortestPath", all.contains(gp.getShortestPath(e1, e2)));
+            assertEquals("Limit of the shortest paths", Math.min(all.size(), 2), gp.getAllShortestPaths(e1, e2, 2).count());
+
+            List<List<String>> paths = gp.getKShortestPaths(e1, e2, all.size() + 20).collect(Collectors.toList());
+            assertEquals("k shortest paths start with the shortest ones", new HashSet<>(all),
+                    new HashSet<>(paths.subList(0, all.size())));
+            assertEquals("Distinct k shortest paths from " + e1 + " to " + e2, paths.size(), new HashSet<>(paths).size());
+            for (int k = 0; k < paths.size(); k++) {
+                List<String> path = paths.get(k);
+                assertTrue("Paths in order of length", k == 0 || paths.get(k - 1).size() <= path.size());
+                assertEquals("Simple path " + path, path.size(), new HashSet<>(path).size());
+                assertEquals("Path from " + e1 + " to " + e2, Arrays.asList(e1, e2), Arrays.asList(path.get(0), path.get(path.size() - 1)));
+                for (int i = 1; i < path.size(); i++)
+                    assertTrue("Adjacent words in path " + path, WordProcessor.isAdjacent(path.get(i - 1), path.get(i)));
+            }
+        }
+
+        try {
+            gp.getAllShortestPaths("BELLIES", "JOLLIES", -1);
+            fail("The limit should not be negative");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether the words within a radius of a word are the ones at that distance or less in the precomputed
+     * tables, each reported once with its distance, nearest first, and whether a query run by the action doesn't
+     * disturb the words being reported
+     */
+    @Test
+    public void test29_words_within_radius() throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        GraphProcessor lazy = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+        lazy.populateGraph("word_list.txt");
+        Random random = new Random(29);
+        for (int n = 0; n < 50; n++) {
+            String word = words.get(random.nextInt(words.size()));
+            int radius = random.nextInt(6);
+            Map<String, Integer> expected = new HashMap<>();
+            for (String other : words) {
+                int distance = gp.getShortestDistance(word, other);
+                if (distance > 0 && distance <= radius)
+                    expected.put(other, distance);
+            }
+            for (GraphProcessor processor : Arrays.asList(gp, lazy)) {
+                Map<String, Integer> found = new HashMap<>();
+                int[] last = {0};
+                int count = processor.forEachWithin(word, radius, (other, distance) -> {
+                    assertTrue("Nearest words first", distance >= last[0]);
+                    last[0] = distance;
+                    assertNull("Each word once", found.put(other, distance));
+                });
+                assertEquals("Words within " + radius + " of " + word, expected, found);
+                assertEquals("Number of words within " + radius + " of " + word, expected.size(), count);
+            }
+        }
+
+        // a query from the action doesn't disturb the neighborhood being reported
+        Map<String, Integer> nested = new HashMap<>();
+        lazy.forEachWithin("CHARGE", 3, (other, distance) -> {
+            assertEquals("Distance of " + other, distance, (int) lazy.getShortestDistance("CHARGE", other));
+            lazy.forEachWithin(other, 1, (next, d) -> { });
+            nested.put(other, distance);
+        });
+        Map<String, Integer> plain = new HashMap<>();
+        lazy.forEachWithin("CHARGE", 3, plain::put);
+        assertEquals("Nested queries", plain, nested);
+
+        assertEquals("Unknown word", 0, gp.forEachWithin("NOTAWORD", 2, (other, distance) -> fail()));
+        assertEquals("Null word", 0, gp.forEachWithin(null, 2, (other, distance) -> fail()));
+        assertEquals("Radius 0", 0, gp.forEachWithin(" charge ", 0, (other, distance) -> fail()));
+        try {
+            gp.forEachWithin("CHARGE", -1, (other, distance) -> { });
+            fail("The radius should not be negative");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether the metrics count the edges added and the queries of each type, time the phases and the sampled
+     * queries, the enumerations until their stream ends or is closed, keep the counts of the threads that died
+     * while holding no more recorders than live threads, and can be read through JMX
+     */
+    @Test
+    public void test30_metrics() throws Exception {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        long edges = 0;
+        for (int a = 0; a < words.size(); a++)
+            for (int b = a + 1; b < words.size(); b++)
+                if (WordProcessor.isAdjacent(words.get(a), words.get(b)))
+                    edges++;
+
+        GraphMetrics metrics = new GraphMetrics(1); // every query is timed
+        GraphProcessor lazy = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+        lazy.setMetrics(metrics);
+        lazy.populateGraph("word_list.txt");
+        for (GraphMetrics.Phase phase : GraphMetrics.Phase.values())
+            assertTrue("Time of " + phase, metrics.getPhaseNanos(phase) > 0);
+        assertEquals("Edges added", edges, metrics.getEdgesAdded());
+        assertTrue("Pairs compared", metrics.getAdjacencyChecks() >= edges);
+
+        Random random = new Random(30);
+        for (int n = 0; n < 100; n++) {
+            String e1 = words.get(random.nextInt(words.size())), e2 = words.get(random.nextInt(words.size()));
+            lazy.getShortestPath(e1, e2);
+            lazy.getShortestDistance(e1, e2);
+        }
+        lazy.getShortestDistances(words.subList(0, 10), words.subList(10, 20));
+        lazy.forEachWithin("CHARGE", 2, (other, distance) -> { });
+        assertEquals("Path queries", 100, metrics.getQueries(GraphMetrics.Query.PATH));
+        assertEquals("Distance queries", 100, metrics.getQueries(GraphMetrics.Query.DISTANCE));
+        assertEquals("Batch queries", 1, metrics.getQueries(GraphMetrics.Query.BATCH));
+        assertEquals("Radius queries", 1, metrics.getQueries(GraphMetrics.Query.RADIUS));
+        assertEquals("All queries", 202, metrics.getQueries());
+        assertTrue("Words visited", metrics.getVerticesVisited() > 0);
+        assertTrue("Edges visited", metrics.getEdgesVisited() >= metrics.getVerticesVisited() / 2);
+        LatencyHistogram latency = metrics.getLatency(GraphMetrics.Query.PATH);
+        assertEquals("Timed path queries", 100, latency.getCount());
+        assertTrue("Percentiles in order", 0 < latency.getPercentile(50)
+                && latency.getPercentile(50) <= latency.getPercentile(99)
+                && latency.getPercentile(99) <= latency.getMax());
+
+        // enumerations, timed when their stream ends or is closed
+        assertEquals("Paths read", 1, lazy.getAllShortestPaths("CHARGE", "GIMLETS", 1).count());
+        try (Stream<List<String>> paths = lazy.getKShortestPaths("CHARGE", "GIMLETS", 100)) {
+            assertTrue("First path", paths.iterator().hasNext());
+        }
+        lazy.getKShortestPaths("CHARGE", "GIMLETS", 100); // dropped
+        assertEquals("Enumeration queries", 3, metrics.getQueries(GraphMetrics.Query.ENUMERATION));
+        assertEquals("Timed enumerations", 2, metrics.getLatency(GraphMetrics.Query.ENUMERATION).getCount());
+
+        // short-lived threads
+        for (int round = 0; round < 10; round++) {
+            Thread[] threads = new Thread[10];
+            for (int t = 0; t < threads.length; t++) {
+                threads[t] = new Thread(() -> lazy.getShortestDistance("CHARGE", "GIMLETS"));
+                threads[t].start();
+            }
+            for (Thread thread : threads)
+                thread.join();
+        }
+        assertEquals("Distance queries of all the threads", 200, metrics.getQueries(GraphMetrics.Query.DISTANCE));
+        assertEquals("Timed distance queries", 200, metrics.getLatency(GraphMetrics.Query.DISTANCE).getCount());
+        assertEquals("Recorders of live threads", 1, metrics.recorderCount());
+
+        // read through JMX
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = metrics.register("GraphProcessorTest:type=GraphMetrics");
+        try {
+            assertEquals("Queries attribute", 305L, server.getAttribute(name, "Queries"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+
+        // disabled
+        lazy.setMetrics(null);
+        lazy.getShortestPath("CHARGE", "GIMLETS");
+        assertEquals("Queries after disabling", 305, metrics.getQueries());
+        try {
+            new GraphMetrics(0);
+            fail("The sample interval should be at least 1");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests whether the k shortest paths end as soon as there are no more simple paths, when k is larger than their
+     * number, using the 27 words AAA ... CCC, which have many paths between them, a chain AAAX, AAAXX, ...
+     * hanging from AAA, and a square of 4 words apart from them
+     */
+    @Test
+    public void test31_k_shortest_paths_run_out() throws IOException {
+        Path file = Files.createTempFile("cube", ".txt");
+        try {
+            List<String> words = new ArrayList<>();
+            for (char a = 'A'; a <= 'C'; a++)
+                for (char b = 'A'; b <= 'C'; b++)
+                    for (char c = 'A'; c <= 'C'; c++)
+                        words.add("" + a + b + c);
+            for (StringBuilder sb = new StringBuilder("AAAX"); sb.length() <= 13; sb.append('X'))
+                words.add(sb.toString());
+            words.addAll(Arrays.asList("DOG", "DOT", "FOG", "FOT"));
+            Files.write(file, words);
+
+            gp1 = new GraphProcessor(GraphProcessor.QueryMode.LAZY);
+            gp1.populateGraph(file.toString());
+            List<List<String>> chain = gp1.getKShortestPaths("AAA", "AAAXXXXXXXXXX", 2).collect(Collectors.toList());
+            assertEquals("Only path along the chain", 1, chain.size());
+            assertEquals("Length of the path along the chain", 11, chain.get(0).size());
+            assertEquals("Paths around the square", 2, gp1.getKShortestPaths("DOG", "FOT", 100).count());
+            assertEquals("First paths between the cube and the chain", 100,
+                    gp1.getKShortestPaths("CCC", "AAAXX", 100).count());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Tests whether a save that fails leaves the previous snapshot as it was and loadable, without leaving its
+     * temporary file behind
+     */
+    @Test
+    public void test32_failed_save_keeps_snapshot() throws IOException {
+        Path directory = Files.createTempDirectory("snapshots");
+        Path snapshot = directory.resolve("graph.snapshot");
+        try {
+            gp.saveSnapshot(snapshot.toString());
+            byte[] saved = Files.readAllBytes(snapshot);
+
+            Thread.currentThread().interrupt(); // so the file channel fails with ClosedByInterruptException
+            try {
+                gp.saveSnapshot(snapshot.toString());
+                fail("The save should fail");
+            } catch (IOException e) {
+                // expected
+            } finally {
+                Thread.interrupted();
+            }
+            assertArrayEquals("Previous snapshot", saved, Files.readAllBytes(snapshot));
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals("Files left in the directory", 1, files.count());
+            }
+            gp1 = new GraphProcessor();
+            gp1.loadSnapshot(snapshot.toString());
+            assertMatchesPrecomputed(gp1);
+        } finally {
+            Files.deleteIfExists(snapshot);
+            Files.delete(directory);
+        }
+    }
+
+    /**
+     * Count the shortest paths from a word to e2, from the precomputed distances of gp
+     *
+     * @param words all the words
+     * @param from  the first word of the paths
+     * @param e2    the last word of the paths
+     * @param memo  number of paths of the words counted already
+     * @return number of shortest paths from from to e2
+     */
+    private long countShortestPaths(List<String> words, String from, String e2, Map<String, Long> memo) {
+        if (from.equals(e2))
+            return 1;
+        if (!memo.containsKey(from)) {
+            long count = 0;
+            for (String word : words)
+                if (WordProcessor.isAdjacent(from, word) && (word.equals(e2)
+                        || gp.getShortestDistance(word, e2) == gp.getShortestDistance(from, e2) - 1))
+                    count += countShortestPaths(words, word, e2, memo);
+            memo.put(from, count);
+        }
+        return memo.get(from);
+    }
+
+    /**
+     * Assert that every distance and path of processor agrees with the precomputed gp
+     *
+     * @param processor the processor to be checked
+     * @throws IOException if word_list.txt can not be read
+     */
+    private void assertMatchesPrecomputed(GraphProcessor processor) throws IOException {
+        List<String> words = new ArrayList<>();
+        WordProcessor.getWordStream("word_list.txt").distinct().forEach(words::add);
+        for (String e1 : words)
+            for (String e2 : words) {
+                int distance = gp.getShortestDistance(e1, e2);
+                assertEquals("Shortest distance from " + e1 + " to " + e2, distance, (int) processor.getShortestDistance(e1, e2));
+
+                List<String> path = processor.getShortestPath(e1, e2);
+                assertEquals("Length of shortest path from " + e1 + " to " + e2, Math.max(distance + 1, 0), path.size());
+                for (int i = 1; i < path.size(); i++)
+                    assertTrue("Adjacent words in path " + path, WordProcessor.isAdjacent(path.get(i - 1), path.get(i)));
+                if (distance > 0)
+                    assertEquals("Path from " + e1 + " to " + e2, Arrays.asList(e1, e2), Arrays.asList(path.get(0), path.get(distance)));
+            }
+    }
 }
@@ -0,0 +1,460 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   GraphSnapshot.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// GraphSnapshot.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a built graph and its precomputed paths, so that a new process doesn't need to build them again
+ * <p>
+ * Layout:
+ * - {@link #MAGIC} and {@link #VERSION}, as big endian ints
+ * - a sequence of sections, each one as its length in bytes, its bytes padded with zeros to a multiple of 8,
+ * and the CRC32 of its bytes; the lengths and the checksums are little endian longs
+ * - the sections of the {@link CompactGraph}, see {@link CompactGraph#write(Output)}, then of its
+ * {@link ComponentIndex}, see {@link ComponentIndex#write(Output)}
+ * - a field: 1 if the {@link PathTable} follows, 0 otherwise, see {@link PathTable#write(Output)}
+ * <p>
+ * The fields (ints such as the sizes) are grouped in small sections of their own, and the arrays are sections of
+ * little endian ints. Every section starts at a multiple of 8, so the arrays are aligned where they are mapped.
+ * <p>
+ * Loading maps the file read-only, and the graph, the components and the rows of the paths are views of the mapping:
+ * nothing is decoded, copied or found again, and the pages are only read when the queries need them. So a load
+ * reads the fields and creates a view of each row of the paths, but its cost doesn't grow with the bytes of the file.
+ * The checksums of the fields are always verified. Those of the arrays and the rows read the whole file, so they
+ * are only verified if asked for.
+ * <p>
+ * A snapshot is written to a temporary file next to it, which replaces the file once it is complete and forced to
+ * the disk. So a save that fails leaves the previous snapshot as it was, and a process that mapped the previous
+ * snapshot keeps reading it.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class GraphSnapshot {
+    /**
+     * First int of every snapshot
+     */
+    static final int MAGIC = 0x574C4753; // "WLGS"
+    /**
+     * Version of the layout, changed whenever the layout changes
+     */
+    static final int VERSION = 4;
+    /**
+     * Maximum number of bytes mapped at the same time to verify a checksum
+     */
+    private static final int WINDOW = 64 << 20;
+    /**
+     * Maximum number of bytes of a section of fields
+     */
+    private static final int MAX_FIELDS = 1 << 10;
+
+    final CompactGraph graph; // the graph
+    final ComponentIndex components; // components of graph
+    final PathTable paths; // precomputed paths of graph, null if not saved
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param graph      the graph
+     * @param components components of graph
+     * @param paths      precomputed paths of graph, null if none
+     */
+    GraphSnapshot(CompactGraph graph, ComponentIndex components, PathTable paths) {
+        this.graph = graph;
+        this.components = components;
+        this.paths = paths;
+    }
+
+    /**
+     * Write this snapshot to a file, replacing the file if it exists. The file is only replaced once the whole
+     * snapshot is written.
+     *
+     * @param filepath file path of the snapshot
+     * @throws IOException exception resulting from writing the filepath (which is not changed then)
+     */
+    void save(String filepath) throws IOException {
+        try (Output out = new Output(filepath)) {
+            graph.write(out);
+            components.write(out);
+            out.putInt(paths == null ? 0 : 1);
+            if (paths != null)
+                paths.write(out);
+            out.commit();
+        }
+    }
+
+    /**
+     * Read a snapshot from a file, by views of the mapped file
+     *
+     * @param filepath file path of the snapshot
+     * @param verify   whether the checksums of the arrays and the rows are verified as well, which reads the whole
+     *                 file; a file corrupted there gives wrong answers or IndexOutOfBoundsExceptions otherwise
+     * @return the snapshot
+     * @throws IOException exception resulting from reading the filepath,
+     *                     or if the file is not a snapshot of this version or is corrupted
+     */
+    static GraphSnapshot load(String filepath, boolean verify) throws IOException {
+        try (Input in = new Input(filepath, verify)) {
+            CompactGraph graph = CompactGraph.read(in);
+            ComponentIndex components = ComponentIndex.read(in, graph.size());
+            int hasPaths = in.getInt();
+            if (hasPaths != 0 && hasPaths != 1)
+                throw new IOException("Corrupted snapshot: invalid field " + hasPaths);
+            PathTable paths = hasPaths == 1 ? PathTable.read(in, components) : null;
+            in.finish();
+            return new GraphSnapshot(graph, components, paths);
+        }
+    }
+
+    /**
+     * Writes the sections of a snapshot to a temporary file through a buffer, then moves the file to its place
+     */
+    static class Output implements AutoCloseable {
+        private final Path target; // where the snapshot goes
+        private final Path temp; // where it is written
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer fields = ByteBuffer.allocate(MAX_FIELDS).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32(); // of the section being written
+        private long length; // bytes of the section being written
+        private boolean committed; // whether temp is moved to target
+
+        private Output(String filepath) throws IOException {
+            target = Paths.get(filepath).toAbsolutePath();
+            // not Files.createTempFile, which would leave the snapshot readable by its owner only
+            temp = target.resolveSibling(target.getFileName() + "." + Long.toHexString(
+                    ThreadLocalRandom.current().nextLong()) + ".tmp");
+            channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            buffer.order(ByteOrder.BIG_ENDIAN).putInt(MAGIC).putInt(VERSION).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Add a field to the current section of fields
+         *
+         * @param value the field
+         */
+        void putInt(int value) throws IOException {
+            if (!fields.hasRemaining())
+                flushFields();
+            fields.putInt(value);
+        }
+
+        /**
+         * Write a section of bytes
+         *
+         * @param values the bytes, from their position to their limit
+         */
+        void putBytes(ByteBuffer values) throws IOException {
+            begin(values.remaining());
+            put(values);
+            end();
+        }
+
+        /**
+         * Write a section of ints
+         *
+         * @param values the ints, from their position to their limit
+         */
+        void putInts(IntBuffer values) throws IOException {
+            begin(4L * values.remaining());
+            values = values.duplicate();
+            while (values.hasRemaining()) {
+                ensure(4);
+                int n = Math.min(values.remaining(), buffer.remaining() / 4), start = buffer.position();
+                IntBuffer chunk = values.duplicate();
+                chunk.limit(chunk.position() + n);
+                buffer.asIntBuffer().put(chunk);
+                buffer.position(start + n * 4);
+                checksum(start);
+                values.position(values.position() + n);
+            }
+            end();
+        }
+
+        /**
+         * Write a section of rows, one after another
+         *
+         * @param rows the rows, each from its position to its limit
+         */
+        void putRows(ByteBuffer[] rows) throws IOException {
+            long bytes = 0;
+            for (ByteBuffer row : rows)
+                bytes += row.remaining();
+            begin(bytes);
+            for (ByteBuffer row : rows)
+                put(row);
+            end();
+        }
+
+        /**
+         * Write the last section of fields, force the file to the disk, and replace the snapshot by it
+         */
+        void commit() throws IOException {
+            if (fields.position() > 0)
+                flushFields();
+            flush();
+            channel.force(true);
+            channel.close();
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        /**
+         * Start a section, after the fields put so far
+         */
+        private void begin(long bytes) throws IOException {
+            if (fields.position() > 0)
+                flushFields();
+            ensure(8);
+            buffer.putLong(bytes);
+            crc.reset();
+            length = bytes;
+        }
+
+        /**
+         * Pad the bytes of the section, then write its checksum
+         */
+        private void end() throws IOException {
+            ensure(16);
+            for (long padding = (8 - length % 8) % 8; padding > 0; padding--)
+                buffer.put((byte) 0);
+            buffer.putLong(crc.getValue());
+        }
+
+        /**
+         * Write bytes of the current section
+         */
+        private void put(ByteBuffer values) throws IOException {
+            values = values.duplicate();
+            while (values.hasRemaining()) {
+                ensure(1);
+                int n = Math.min(values.remaining(), buffer.remaining()), start = buffer.position();
+                ByteBuffer chunk = values.duplicate();
+                chunk.limit(chunk.position() + n);
+                buffer.put(chunk);
+                checksum(start);
+                values.position(values.position() + n);
+            }
+        }
+
+        /**
+         * Write the fields put since the last section as a section
+         */
+        private void flushFields() throws IOException {
+            fields.flip();
+            begin(fields.remaining());
+            put(fields);
+            end();
+            fields.clear();
+        }
+
+        /**
+         * Add the bytes of the buffer from start to its position to the checksum
+         */
+        private void checksum(int start) {
+            ByteBuffer written = buffer.duplicate();
+            written.flip();
+            written.position(start);
+            crc.update(written);
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes)
+                flush();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            buffer.clear();
+        }
+
+        /**
+         * Close the temporary file, and delete it unless it replaced the snapshot
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.close();
+            } finally {
+                if (!committed)
+                    Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Reads the sections of a snapshot, mapping the arrays and the rows read-only
+     */
+    static class Input implements AutoCloseable {
+        private final FileChannel channel;
+        private final long size; // bytes of the file
+        private final boolean verify; // whether the checksums of the arrays and the rows are verified
+        private long position; // where the next section starts
+        private long length; // bytes of the last section found
+        private long checksum; // CRC32 of the last section found
+        private ByteBuffer fields; // the section of fields being read, null before the first one
+
+        private Input(String filepath, boolean verify) throws IOException {
+            this.verify = verify;
+            channel = FileChannel.open(Paths.get(filepath));
+            try {
+                size = channel.size();
+                if (size < 8)
+                    throw new IOException("Not a graph snapshot: " + filepath);
+                ByteBuffer start = read(0, 8).order(ByteOrder.BIG_ENDIAN);
+                if (start.getInt() != MAGIC)
+                    throw new IOException("Not a graph snapshot: " + filepath);
+                int version = start.getInt();
+                if (version != VERSION)
+                    throw new IOException("Unsupported snapshot version " + version + ": " + filepath);
+                position = 8;
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Read the next field, from the current section of fields or the next one
+         *
+         * @return the field
+         * @throws IOException if the next section is not a valid section of fields
+         */
+        int getInt() throws IOException {
+            if (fields == null || !fields.hasRemaining()) {
+                long start = section(-1);
+                if (length > MAX_FIELDS || length % 4 != 0)
+                    throw new IOException("Corrupted snapshot: invalid fields");
+                fields = read(start, (int) length);
+                CRC32 crc = new CRC32();
+                crc.update(fields.duplicate());
+                if (crc.getValue() != checksum)
+                    throw new IOException("Corrupted snapshot: checksum mismatch");
+            }
+            return fields.getInt();
+        }
+
+        /**
+         * Map the next section as bytes
+         *
+         * @param length number of bytes the section should have
+         * @return the read-only bytes of the section
+         * @throws IOException if the section doesn't have that length, or its checksum doesn't match
+         */
+        ByteBuffer getBytes(int length) throws IOException {
+            return map(section(length), length);
+        }
+
+        /**
+         * Map the next section as little endian ints
+         *
+         * @param count number of ints the section should have
+         * @return the read-only ints of the section
+         * @throws IOException if the section doesn't have that length, or its checksum doesn't match
+         */
+        IntBuffer getInts(int count) throws IOException {
+            return map(section(4L * count), 4L * count).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+
+        /**
+         * Find the next section, which is mapped by the caller through {@link #map(long, long)}. Its checksum is
+         * verified if the snapshot is read with verify and the length is known.
+         *
+         * @param expected number of bytes the section should have, -1 if any
+         * @return the position of its bytes in the file
+         * @throws IOException if the section doesn't have that length, or its checksum doesn't match
+         */
+        long section(long expected) throws IOException {
+            if (fields != null && fields.hasRemaining())
+                throw new IOException("Corrupted snapshot: " + fields.remaining() + " unexpected bytes");
+            if (position + 8 > size)
+                throw new IOException("Corrupted snapshot: unexpected end of file");
+            length = read(position, 8).getLong();
+            long start = position + 8, end = start + (length + 7) / 8 * 8;
+            if (length < 0 || end < start || end + 8 > size)
+                throw new IOException("Corrupted snapshot: unexpected end of file");
+            if (expected >= 0 && length != expected)
+                throw new IOException("Corrupted snapshot: unexpected length " + length);
+            checksum = read(end, 8).getLong();
+            position = end + 8;
+
+            if (verify && expected >= 0) {
+                CRC32 crc = new CRC32();
+                for (long done = 0; done < length; done += WINDOW)
+                    crc.update(map(start + done, Math.min(WINDOW, length - done)));
+                if (crc.getValue() != checksum)
+                    throw new IOException("Corrupted snapshot: checksum mismatch");
+            }
+            return start;
+        }
+
+        /**
+         * Map a part of the file read-only. The mapping stays valid after the snapshot is closed.
+         *
+         * @param start  position in the file
+         * @param length number of bytes, at most Integer.MAX_VALUE
+         * @return the mapped bytes, big endian
+         * @throws IOException exception resulting from mapping the file
+         */
+        ByteBuffer map(long start, long length) throws IOException {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+
+        /**
+         * Check that every section is read
+         */
+        void finish() throws IOException {
+            if (fields != null && fields.hasRemaining() || position != size)
+                throw new IOException("Corrupted snapshot: unexpected bytes");
+        }
+
+        /**
+         * Read a few bytes of the file into a little endian buffer
+         */
+        private ByteBuffer read(long start, int length) throws IOException {
+            ByteBuffer bytes = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+            while (bytes.hasRemaining())
+                if (channel.read(bytes, start + bytes.position()) < 0)
+                    throw new IOException("Corrupted snapshot: unexpected end of file");
+            bytes.flip();
+            return bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
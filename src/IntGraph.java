@@ -0,0 +1,59 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   IntGraph.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// IntGraph.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+/**
+ * An undirected and unweighted graph whose vertices are the ints 0 ... size() - 1, the primitive sibling of
+ * {@link GraphADT} used by the traversals, so that they neither box the vertices nor allocate iterators
+ * <p>
+ * (none of the methods throw exceptions for valid arguments)
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public interface IntGraph {
+
+    /**
+     * Get the number of vertices in the graph
+     *
+     * @return number of vertices
+     */
+    public int size();
+
+
+    /**
+     * Get the number of neighbors of a vertex
+     *
+     * @param vertex the vertex, between 0 and size() - 1
+     * @return number of neighbors
+     */
+    public int degree(int vertex);
+
+
+    /**
+     * Get the k-th neighbor of a vertex
+     *
+     * @param vertex the vertex, between 0 and size() - 1
+     * @param k      between 0 and degree(vertex) - 1
+     * @return the k-th neighbor
+     */
+    public int neighbor(int vertex, int k);
+}
@@ -0,0 +1,348 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   KShortestPaths.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// KShortestPaths.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * Lazy enumeration of the simple paths between two vertices of an {@link IntGraph}, shortest first, by Yen's
+ * algorithm in the partitioned form of Lawler
+ * <p>
+ * The first path is a shortest path. Every later path deviates from one found before it: it shares a prefix (the
+ * root) with that path, then leaves it at the last vertex of the root (the spur) by an edge that the paths found
+ * with the same root haven't taken, and goes on by a shortest path that avoids the root. Each candidate stands for
+ * all the paths with its root that avoid its excluded edges from the spur, and it is the shortest of them. Once a
+ * candidate is returned, the rest of its paths are split by where they leave it: from its spur, by an edge
+ * excluded so far or by its own next edge, or from each later vertex, by the next edge of the candidate. The
+ * shortest path of each part is a new candidate, so the parts never overlap and no path is found twice. A path is
+ * only split when the heap of candidates runs out of paths as short as it, since the paths of its parts can't be
+ * shorter.
+ * <p>
+ * The deviations are searched by A*, whose estimate of the distance to the destination is the distance in the
+ * whole graph, from a BFS from the destination grown by a level when the paths get longer. Without a root in the
+ * way, A* goes straight to the destination, so a deviation mostly costs its own length; at worst it costs a search
+ * of the component. A path then costs at most L + 1 searches of O(n + m) for L steps, whatever the shape of the
+ * graph, and the enumeration stops as soon as the heap is empty. The memory is O(n) for the buffers, plus the
+ * candidates. The candidates of the same length are taken in order of the ids of their vertices, so the order of
+ * the paths is fixed for a graph.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class KShortestPaths implements Iterator<int[]> {
+    private static final int FAR = Integer.MAX_VALUE / 2; // estimate of a vertex the BFS from dst can't reach
+
+    private final IntGraph graph; // the graph to be searched
+    private final int dst; // the last vertex of every path
+    private final Queue<Path> unsplit = new ArrayDeque<>(); // the paths returned but not split yet, in order
+    private final PriorityQueue<Path> candidates = new PriorityQueue<>(); // deviations not returned yet
+    private final int[] toDst; // toDst[v] is the distance from v to dst, -1 if not reached by the BFS yet
+    private final int[] queue; // BFS from dst, grown when the paths get longer
+    private int head, tail; // queue[head] is the next vertex to be expanded, queue[tail] is the next free slot
+    private int reached; // every vertex within this distance from dst is reached by the BFS
+    private final int[] avoided; // stamp if v is on the root of the current search, -stamp if excluded from the spur
+    private final int[] marks; // stamp if the current search has reached v, -stamp if it knows its shortest path
+    private final int[] fromSpur; // fromSpur[v] is the length of the best path to v known by the current search
+    private final int[] predecessor; // predecessor[v] is the vertex before v on that path
+    private final int[] checked; // stamp if the BFS from dst of the current search has reached v
+    private final int[] check; // vertices reached by that BFS, in order
+    private int checkHead, checkTail; // check[checkHead] is the next vertex to be expanded
+    private final int[][] open = new int[3][16]; // vertices to be expanded of estimate f, f + 1 and f + 2 (mod 3)
+    private final int[] openSize = new int[3]; // number of vertices in each of open
+    private int stamp; // number of the current search, so the buffers don't need to be cleared
+    private int[] next; // the next path, found ahead by hasNext(), null if not found yet
+
+    /**
+     * A path, ordered by length, then by the ids of its vertices
+     */
+    private static class Path implements Comparable<Path> {
+        final int[] ids; // ids of the vertices on the path, from the source to the destination
+        final int deviation; // index of the spur the path deviates at, 0 for the first path
+        final int[] excluded; // vertices the paths of this part can't go to from the spur
+
+        Path(int[] ids, int deviation, int[] excluded) {
+            this.ids = ids;
+            this.deviation = deviation;
+            this.excluded = excluded;
+        }
+
+        @Override
+        public int compareTo(Path other) {
+            if (ids.length != other.ids.length)
+                return Integer.compare(ids.length, other.ids.length);
+            for (int t = 0; t < ids.length; t++)
+                if (ids[t] != other.ids[t])
+                    return Integer.compare(ids[t], other.ids[t]);
+            return 0;
+        }
+    }
+
+    /**
+     * Prepare the enumeration of all the simple paths
+     *
+     * @param graph the graph to be searched
+     * @param src   the first vertex of the paths
+     * @param dst   the last vertex of the paths, different from src
+     */
+    KShortestPaths(IntGraph graph, int src, int dst) {
+        this.graph = graph;
+        this.dst = dst;
+        int size = graph.size();
+        toDst = new int[size];
+        queue = new int[size];
+        avoided = new int[size];
+        marks = new int[size];
+        fromSpur = new int[size];
+        predecessor = new int[size];
+        checked = new int[size];
+        check = new int[size];
+        Arrays.fill(toDst, -1);
+        toDst[dst] = 0;
+        queue[tail++] = dst;
+        while (head < tail && toDst[src] < 0) // up to the level of src
+            expand();
+        grow(Math.max(toDst[src], 0));
+
+        int[] first = search(src, newStamp());
+        if (first != null)
+            candidates.add(new Path(first, 0, new int[0]));
+    }
+
+    /**
+     * Check whether there is another path, and find it if it isn't found yet
+     *
+     * @return true if there is another path
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null)
+            next = advance();
+        return next != null;
+    }
+
+    /**
+     * Get the next path, which is at least as long as the ones before it
+     *
+     * @return ids of the vertices on the path, from the source to the destination
+     * @throws NoSuchElementException if there are no more paths
+     */
+    @Override
+    public int[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        int[] result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Split the paths returned until a candidate is as short as the rest of their paths, and take the shortest
+     * candidate
+     *
+     * @return the next path, or null if there are no more paths
+     */
+    private int[] advance() {
+        while (!unsplit.isEmpty() && (candidates.isEmpty()
+                || candidates.peek().ids.length > unsplit.peek().ids.length))
+            split(unsplit.remove());
+        Path best = candidates.poll();
+        if (best == null)
+            return null;
+        unsplit.add(best);
+        return best.ids.clone();
+    }
+
+    /**
+     * Split the other paths of the part of path by where they leave it, and add the shortest path of each part
+     * to the candidates
+     *
+     * @param path a path returned
+     */
+    private void split(Path path) {
+        int[] ids = path.ids;
+        grow(ids.length - 1); // the other paths are at least as long
+        for (int i = path.deviation; i + 1 < ids.length; i++) { // ids[i] is the spur, ids[0 ... i - 1] the root
+            // the paths leaving the spur by the next edge of path, or by an edge excluded from the part of path
+            int[] excluded = Arrays.copyOf(path.excluded, i == path.deviation ? path.excluded.length + 1 : 1);
+            excluded[excluded.length - 1] = ids[i + 1];
+            int current = newStamp();
+            for (int t = 0; t < i; t++)
+                avoided[ids[t]] = current;
+            for (int v : excluded)
+                avoided[v] = -current;
+
+            int[] tail = search(ids[i], current);
+            if (tail == null) // every path of this part is found
+                continue;
+            int[] deviation = Arrays.copyOf(ids, i + tail.length);
+            System.arraycopy(tail, 0, deviation, i, tail.length);
+            candidates.add(new Path(deviation, i, excluded));
+        }
+    }
+
+    /**
+     * Find a shortest path from spur to dst by A*, avoiding the removed vertices and the blocked edges from spur
+     * <p>
+     * The estimate {@link #estimate(int)} changes by at most 1 along an edge, so the estimated length f of a path
+     * through a vertex never drops along the path, and grows by 0, 1 or 2 per step. So the open vertices are kept in
+     * three stacks, of f, f + 1 and f + 2, and a vertex has its shortest path once it is taken from the stack of the
+     * lowest f. Taking the last one pushed goes depth first, straight to dst when nothing is in the way.
+     * <p>
+     * When the root cuts dst off, A* would search everything spur can still reach, which is most of the component
+     * if dst is only cut off by a few vertices near it. So a BFS from dst runs a step per step of A*, until it
+     * reaches spur, and the search gives up if that BFS runs out first.
+     *
+     * @param spur    the first vertex of the path
+     * @param current the stamp of this search, see {@link #newStamp()}
+     * @return ids of the vertices on the path, from spur to dst, or null if there is none
+     */
+    private int[] search(int spur, int current) {
+        Arrays.fill(openSize, 0);
+        marks[spur] = current;
+        fromSpur[spur] = 0;
+        int f = estimate(spur);
+        open(f, spur);
+        checked[dst] = current;
+        checkHead = checkTail = 0;
+        check[checkTail++] = dst;
+        boolean connected = false; // whether the BFS from dst has reached spur
+        while (true) {
+            if (!connected) {
+                if (checkHead == checkTail)
+                    return null; // dst can't be reached from spur
+                connected = checkStep(spur, current);
+            }
+            int level = f % 3;
+            if (openSize[level] == 0) {
+                if (openSize[(f + 1) % 3] == 0 && openSize[(f + 2) % 3] == 0)
+                    return null; // every vertex that can be reached is closed
+                f++;
+                continue;
+            }
+            int cur = open[level][--openSize[level]];
+            if (marks[cur] == -current || fromSpur[cur] + estimate(cur) != f) // pushed again by a shorter path
+                continue;
+            marks[cur] = -current;
+            if (cur == dst) { // walk back to spur
+                int[] path = new int[fromSpur[dst] + 1];
+                for (int t = fromSpur[dst], v = dst; t >= 0; t--, v = predecessor[v])
+                    path[t] = v;
+                return path;
+            }
+
+            for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+                int nxt = graph.neighbor(cur, k), length = fromSpur[cur] + 1;
+                int avoid = avoided[nxt], state = marks[nxt];
+                if (avoid == current || avoid == -current && cur == spur || state == -current
+                        || state == current && fromSpur[nxt] <= length)
+                    continue;
+                marks[nxt] = current;
+                fromSpur[nxt] = length;
+                predecessor[nxt] = cur;
+                open(length + estimate(nxt), nxt);
+            }
+        }
+    }
+
+    /**
+     * Expand the next vertex of the BFS from dst of the current search, which avoids the root and the excluded
+     * edges from spur like the search
+     *
+     * @return true if the BFS reaches spur
+     */
+    private boolean checkStep(int spur, int current) {
+        int cur = check[checkHead++];
+        for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+            int nxt = graph.neighbor(cur, k);
+            if (nxt == spur) {
+                if (avoided[cur] != -current)
+                    return true;
+            } else if (avoided[nxt] != current && checked[nxt] != current) {
+                checked[nxt] = current;
+                check[checkTail++] = nxt;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Push an open vertex of estimated path length f
+     */
+    private void open(int f, int v) {
+        int level = f % 3;
+        if (openSize[level] == open[level].length)
+            open[level] = Arrays.copyOf(open[level], 2 * openSize[level]);
+        open[level][openSize[level]++] = v;
+    }
+
+    /**
+     * Get a lower bound of the distance from v to dst, which changes by at most 1 along an edge: the distance if the
+     * BFS from dst has reached v, otherwise one more than {@link #reached}
+     */
+    private int estimate(int v) {
+        return toDst[v] >= 0 ? toDst[v] : reached + 1;
+    }
+
+    /**
+     * Grow the BFS from dst until it reaches every vertex within distance from dst
+     */
+    private void grow(int distance) {
+        if (distance <= reached)
+            return;
+        while (head < tail && toDst[queue[head]] < distance)
+            expand();
+        reached = head < tail ? distance : FAR; // every vertex of the component of dst is reached
+    }
+
+    /**
+     * Expand the next vertex of the BFS from dst
+     */
+    private void expand() {
+        int cur = queue[head++];
+        for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+            int nxt = graph.neighbor(cur, k);
+            if (toDst[nxt] < 0) {
+                toDst[nxt] = toDst[cur] + 1;
+                queue[tail++] = nxt;
+            }
+        }
+    }
+
+    /**
+     * Get the stamp of a new search, which marks nothing yet
+     *
+     * @return the stamp
+     */
+    private int newStamp() {
+        if (stamp == Integer.MAX_VALUE) { // reuse the stamps once every one is used
+            Arrays.fill(avoided, 0);
+            Arrays.fill(marks, 0);
+            Arrays.fill(checked, 0);
+            stamp = 0;
+        }
+        return ++stamp;
+    }
+}
@@ -0,0 +1,174 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   LandmarkOracle.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// LandmarkOracle.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Bounds on the distance between two vertices from their distances to a few landmark vertices (ALT)
+ * <p>
+ * By the triangle inequality, for a landmark l in the component of u and v:
+ * |d(l, u) - d(l, v)| <= d(u, v) <= d(l, u) + d(l, v).
+ * The best bounds over all the landmarks are answered in O(k) for k landmarks, without a search.
+ * <p>
+ * Landmarks are picked one by one, each one as far as possible from the ones before it (farthest selection):
+ * a vertex scores its distance to the nearest landmark of its component, or the size of its component if the
+ * component has no landmark yet. So the large components get landmarks first, and a component without landmarks
+ * only has the trivial bounds 1 and (component size - 1).
+ * <p>
+ * The distances are stored as chars, interleaved so that the k distances of a vertex are next to each other:
+ * the oracle costs 2k bytes per vertex, and a query reads two short runs of memory. They are kept in a column per
+ * landmark while the landmarks are picked, so that only the landmarks picked take space, and the nk distances of
+ * n vertices should fit in an array: k is at most {@link #MAX_CELLS} / n.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class LandmarkOracle {
+    /**
+     * Stored distance from a landmark to the vertices of other components
+     */
+    private static final char UNREACHABLE = 0xFFFF;
+    /**
+     * Maximum number of distances stored, the largest length of an array that the JVMs allocate
+     */
+    static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private final ComponentIndex components; // components of the graph
+    private final int[] landmarks; // the landmarks, in the order they are picked
+    private final char[] distance; // distance[v * count + l] is the distance from landmarks[l] to v
+
+    /**
+     * Pick the landmarks of graph and run a BFS from each of them
+     *
+     * @param graph      the graph
+     * @param components components of graph
+     * @param count      maximum number of landmarks; fewer are picked if every component is covered already
+     * @throws IllegalStateException    if a distance is longer than a char can hold
+     * @throws IllegalArgumentException if the distances of the landmarks picked don't fit in {@link #MAX_CELLS}
+     */
+    LandmarkOracle(IntGraph graph, ComponentIndex components, int count) {
+        int size = graph.size();
+        this.components = components;
+        int[] picked = new int[Math.min(count, size)]; // a vertex is picked at most once
+        char[][] columns = new char[picked.length][]; // columns[l][v] is the distance from picked[l] to v
+
+        int[] nearest = new int[size]; // distance to the nearest landmark of the same component, -1 if none
+        Arrays.fill(nearest, -1);
+        BreadthFirstSearch search = new BreadthFirstSearch();
+        int numPicked = 0;
+        while (numPicked < picked.length) {
+            int best = -1, bestScore = 0;
+            for (int v = 0; v < size; v++) {
+                int score = nearest[v] >= 0 ? nearest[v] : components.componentSize(components.component(v)) - 1;
+                if (score > bestScore) {
+                    best = v;
+                    bestScore = score;
+                }
+            }
+            if (best < 0) // every vertex is a landmark or alone in its component
+                break;
+            if ((long) size * (numPicked + 1) > MAX_CELLS)
+                throw new IllegalArgumentException("The distances of " + (numPicked + 1) + " landmarks of " + size
+                        + " words don't fit in an array");
+
+            search.search(graph, best);
+            int[] d = search.distance();
+            char[] column = new char[size];
+            Arrays.fill(column, UNREACHABLE);
+            for (int v = 0; v < size; v++) {
+                if (d[v] < 0)
+                    continue;
+                if (d[v] >= UNREACHABLE)
+                    throw new IllegalStateException("Shortest path longer than " + (UNREACHABLE - 1));
+                column[v] = (char) d[v];
+                nearest[v] = nearest[v] < 0 ? d[v] : Math.min(nearest[v], d[v]);
+            }
+            columns[numPicked] = column;
+            picked[numPicked++] = best;
+        }
+
+        landmarks = Arrays.copyOf(picked, numPicked);
+        distance = new char[size * numPicked];
+        for (int l = 0; l < numPicked; l++) {
+            for (int v = 0, cell = l; v < size; v++, cell += numPicked)
+                distance[cell] = columns[l][v];
+            columns[l] = null; // interleaved already
+        }
+    }
+
+    /**
+     * Get the number of landmarks
+     *
+     * @return number of landmarks
+     */
+    int count() {
+        return landmarks.length;
+    }
+
+    /**
+     * Get a landmark
+     *
+     * @param l index of the landmark, between 0 and count() - 1
+     * @return the landmark vertex
+     */
+    int landmark(int l) {
+        return landmarks[l];
+    }
+
+    /**
+     * Get a lower bound on the distance between u and v
+     *
+     * @param u a vertex
+     * @param v another vertex
+     * @return the lower bound, 0 if u is v, -1 if u and v are in different components
+     */
+    int lowerBound(int u, int v) {
+        if (u == v)
+            return 0;
+        if (!components.connected(u, v))
+            return -1;
+        int lower = 1, count = landmarks.length;
+        for (int l = 0, a = u * count, b = v * count; l < count; l++, a++, b++)
+            if (distance[a] != UNREACHABLE)
+                lower = Math.max(lower, Math.abs(distance[a] - distance[b]));
+        return lower;
+    }
+
+    /**
+     * Get an upper bound on the distance between u and v
+     *
+     * @param u a vertex
+     * @param v another vertex
+     * @return the upper bound, 0 if u is v, -1 if u and v are in different components
+     */
+    int upperBound(int u, int v) {
+        if (u == v)
+            return 0;
+        if (!components.connected(u, v))
+            return -1;
+        int upper = components.componentSize(components.component(u)) - 1, count = landmarks.length;
+        for (int l = 0, a = u * count, b = v * count; l < count; l++, a++, b++)
+            if (distance[a] != UNREACHABLE)
+                upper = Math.min(upper, distance[a] + distance[b]);
+        return upper;
+    }
+}
@@ -0,0 +1,146 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   LatencyHistogram.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// LatencyHistogram.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds, with a relative precision of 1/{@link #SUB_BUCKETS} (as in HdrHistogram)
+ * <p>
+ * Values below {@link #SUB_BUCKETS} have a bucket each. Above, every power of 2 is split into {@link #SUB_BUCKETS}
+ * buckets of equal width, so a bucket is at most 1/{@link #SUB_BUCKETS} of its values wide, and the whole range of
+ * a long takes less than a thousand buckets. Recording a value is a few shifts and an increment, and doesn't
+ * allocate anything.
+ * <p>
+ * A histogram has a single writer: {@link GraphMetrics} gives each thread its own, and merges them when they are
+ * read. The counts are published by ordered writes (lazySet), which cost a plain write, so a reader may miss the
+ * latest values but never sees a torn one.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class LatencyHistogram {
+    /**
+     * Number of buckets per power of 2
+     */
+    static final int SUB_BUCKETS = 16;
+    private static final int SUB_BITS = 4; // log2(SUB_BUCKETS)
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_BUCKETS; // a long has at most 63 significant bits
+    private static final int COUNT = BUCKETS, SUM = BUCKETS + 1, MAX = BUCKETS + 2; // slots after the buckets
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS + 3); // the buckets, then count, sum and max
+
+    /**
+     * Record a latency, by the only thread writing this histogram
+     *
+     * @param nanos the latency in nanoseconds, not negative
+     */
+    void record(long nanos) {
+        int bucket = bucket(nanos);
+        counts.lazySet(bucket, counts.get(bucket) + 1);
+        counts.lazySet(COUNT, counts.get(COUNT) + 1);
+        counts.lazySet(SUM, counts.get(SUM) + nanos);
+        if (nanos > counts.get(MAX))
+            counts.lazySet(MAX, nanos);
+    }
+
+    /**
+     * Add the values of another histogram to this one
+     *
+     * @param other the histogram to be added, not changed
+     */
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < MAX; i++)
+            counts.lazySet(i, counts.get(i) + other.counts.get(i));
+        counts.lazySet(MAX, Math.max(counts.get(MAX), other.counts.get(MAX)));
+    }
+
+    /**
+     * Get the number of recorded values
+     *
+     * @return number of values
+     */
+    public long getCount() {
+        return counts.get(COUNT);
+    }
+
+    /**
+     * Get the mean of the recorded values
+     *
+     * @return the mean in nanoseconds, 0 if there is none
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) counts.get(SUM) / count;
+    }
+
+    /**
+     * Get the largest recorded value
+     *
+     * @return the largest value in nanoseconds, 0 if there is none
+     */
+    public long getMax() {
+        return counts.get(MAX);
+    }
+
+    /**
+     * Get a percentile of the recorded values
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the largest value of the bucket holding the percentile, so within 1/{@link #SUB_BUCKETS} above the
+     * exact percentile (but not above {@link #getMax()}); 0 if there is no value
+     * @throws IllegalArgumentException if percentile is not between 0 and 100
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("percentile should be between 0 and 100");
+        long count = getCount();
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count)), seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= rank)
+                return Math.min(lowest(bucket + 1) - 1, getMax());
+        }
+        return getMax(); // only if a value was recorded after the count was read
+    }
+
+    /**
+     * Get the bucket of a value
+     */
+    private static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value); // at least SUB_BITS
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + (int) (value >>> (exponent - SUB_BITS)) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get the smallest value of a bucket, Long.MIN_VALUE (Long.MAX_VALUE + 1) for the bucket after the last one
+     */
+    private static long lowest(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BITS);
+    }
+}
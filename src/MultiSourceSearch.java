@@ -0,0 +1,124 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   MultiSourceSearch.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// MultiSourceSearch.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+/**
+ * Bit-parallel BFS from up to {@link #LANES} sources of the same component at the same time (MS-BFS, Then et al.),
+ * storing the results in a {@link PathTable}
+ * <p>
+ * The i-th source is lane i, and each vertex has a long of lanes for each of:
+ * - seen: the sources that have reached the vertex,
+ * - visit: the sources that have the vertex on their current level,
+ * - next: the sources that have the vertex on their next level.
+ * A level is expanded by going through the vertices of the component in increasing order of id (the other
+ * components can't be reached), and giving the lanes of visit to
+ * each neighbor that hasn't seen them yet. So the edges of a vertex are read once per level for all the sources
+ * that have it in their frontier, instead of once per source.
+ * <p>
+ * A lane of a vertex is claimed by the first vertex of the frontier that reaches it, which is the frontier neighbor
+ * with the smallest id. This is the same predecessor that {@link BreadthFirstSearch} picks, so the table is exactly
+ * the same as if it was filled by a BFS from each source.
+ * <p>
+ * The buffers are kept between searches, so a search doesn't allocate anything once they are large enough.
+ * An instance is not thread safe, every thread should use its own.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class MultiSourceSearch {
+    /**
+     * Maximum number of sources of a search, one per bit of a long
+     */
+    static final int LANES = 64;
+
+    private long[] seen = new long[0]; // bit i of seen[v] is set iff source i has reached v
+    private long[] visit = new long[0]; // bit i of visit[v] is set iff v is on the current level of source i
+    private long[] next = new long[0]; // bit i of next[v] is set iff v is on the next level of source i
+
+    /**
+     * Run a BFS from each of the vertices of component c with local index first ... first + count - 1,
+     * and store their rows in table
+     * <p>
+     * Valid argument conditions:
+     * 1. count should be between 1 and {@link #LANES}
+     * 2. the rows of the sources in table should be empty
+     *
+     * @param graph      the graph to be searched, whose neighbors are sorted by id
+     * @param components components of graph
+     * @param c          the component of the sources
+     * @param first      local index of the first source
+     * @param count      number of sources
+     * @param table      the table to store the results
+     * @return false if a distance doesn't fit in the table, true otherwise
+     */
+    boolean search(IntGraph graph, ComponentIndex components, int c, int first, int count, PathTable table) {
+        int size = components.componentSize(c);
+        if (seen.length < graph.size()) {
+            seen = new long[graph.size()];
+            visit = new long[graph.size()];
+            next = new long[graph.size()];
+        }
+        for (int k = 0; k < size; k++) { // only the vertices of c are used
+            int v = components.member(c, k);
+            seen[v] = visit[v] = next[v] = 0;
+        }
+        for (int i = 0; i < count; i++) {
+            int src = components.member(c, first + i);
+            seen[src] = visit[src] = 1L << i;
+        }
+
+        int max = table.isWide() ? PathTable.MAX_WIDE_DISTANCE : PathTable.MAX_BYTE_DISTANCE;
+        for (int level = 1; ; level++) {
+            boolean found = false; // whether any source reached a new vertex on this level
+            for (int index = 0; index < size; index++) {
+                int cur = components.member(c, index);
+                long lanes = visit[cur];
+                if (lanes == 0)
+                    continue;
+                for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+                    int nxt = graph.neighbor(cur, k);
+                    long claimed = lanes & ~seen[nxt] & ~next[nxt]; // sources reaching nxt for the first time
+                    if (claimed == 0)
+                        continue;
+                    if (level > max)
+                        return false;
+                    found = true;
+                    next[nxt] |= claimed;
+                    for (; claimed != 0; claimed &= claimed - 1) {
+                        int src = components.member(c, first + Long.numberOfTrailingZeros(claimed));
+                        if (src < nxt) // the other half is stored by the row of nxt
+                            table.setDistance(src, nxt, level);
+                        table.setPredecessor(src, nxt, cur);
+                    }
+                }
+            }
+            if (!found)
+                return true;
+
+            for (int index = 0; index < size; index++) { // the next level becomes the current one
+                int v = components.member(c, index);
+                seen[v] |= next[v];
+                visit[v] = next[v];
+                next[v] = 0;
+            }
+        }
+    }
+}
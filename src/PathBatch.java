@@ -0,0 +1,92 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   PathBatch.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// PathBatch.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Shortest paths of a batch of word pairs, see {@link GraphProcessor#getShortestPaths(List, List)}
+ * <p>
+ * The words of all the paths are stored one path after another in a single array, so a batch costs one array
+ * of references and two int arrays instead of a list per pair. Immutable.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class PathBatch {
+    private final int[] distance; // distance[k] is the distance of pair k, -1 if no path
+    private final int[] start; // the path of pair k is words[start[k]] ... words[start[k + 1] - 1]
+    private final String[] words; // words of all the paths, one path after another
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param distance distance of each pair, -1 if no path
+     * @param start    start of the path of each pair in words, followed by words.length
+     * @param words    words of all the paths, one path after another
+     */
+    PathBatch(int[] distance, int[] start, String[] words) {
+        this.distance = distance;
+        this.start = start;
+        this.words = words;
+    }
+
+    /**
+     * Get the number of pairs
+     *
+     * @return number of pairs in the batch
+     */
+    public int size() {
+        return distance.length;
+    }
+
+    /**
+     * Get the distance of a pair, the same as {@link GraphProcessor#getShortestDistance(String, String)}
+     *
+     * @param k index of the pair in the batch
+     * @return number of edges of the shortest path, -1 if no path (true also for word1=word2)
+     */
+    public int distance(int k) {
+        return distance[k];
+    }
+
+    /**
+     * Get the distances of all the pairs
+     *
+     * @return a copy of the distances, -1 if no path
+     */
+    public int[] distances() {
+        return Arrays.copyOf(distance, distance.length);
+    }
+
+    /**
+     * Get the path of a pair. It is a shortest path like {@link GraphProcessor#getShortestPath(String, String)},
+     * but it may be a different one if there are several.
+     *
+     * @param k index of the pair in the batch
+     * @return unmodifiable list of the words from the first word to the second one, empty if no path
+     */
+    public List<String> path(int k) {
+        return Collections.unmodifiableList(Arrays.asList(words).subList(start[k], start[k + 1]));
+    }
+}
@@ -0,0 +1,183 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   PathEnumerator.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// PathEnumerator.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy enumeration of the shortest paths between two vertices of an {@link IntGraph}
+ * <p>
+ * A {@link BidirectionalSearch} finds the vertices on a shortest path, and the paths are found by a depth-first
+ * search from the source on a copy of the shortest-path DAG: the edges from each of them to its neighbors one step
+ * closer to the destination. Every step then leads to the destination, so every path is found in O(d * degree)
+ * for distance d, and the memory is O(size of the DAG). The longer paths are enumerated by {@link KShortestPaths}.
+ * <p>
+ * Paths are found one at a time when they are asked for, so the caller can stop early, and the memory doesn't
+ * grow with the number of paths found. The neighbors are tried in order of id, so the order of the paths is fixed
+ * for a graph.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class PathEnumerator implements Iterator<int[]> {
+    private final IntGraph graph; // the shortest-path DAG of the graph
+    private final int[] vertices; // vertices[v] is the id in the graph of vertex v of the DAG
+    private final int src; // the first vertex of every path
+    private final int length; // length of the shortest paths
+    private final int[] path; // path[0 ... depth] is the path being searched
+    private final int[] cursor; // cursor[t] is the index of the next neighbor of path[t] to try
+    private boolean done; // whether every path is found
+    private int depth = -1; // depth of the last vertex of the path being searched, -1 before a search starts
+    private int[] next; // the next path, found ahead by hasNext(), null if not found yet
+
+    /**
+     * Prepare the enumeration of the shortest paths found by a search
+     *
+     * @param graph  the graph to be searched
+     * @param src    the first vertex of the paths
+     * @param dst    the last vertex of the paths, different from src
+     * @param search the search whose last call was search(graph, src, dst), and found a path
+     */
+    PathEnumerator(IntGraph graph, int src, int dst, BidirectionalSearch search) {
+        vertices = search.shortestPathVertices(graph);
+        int size = vertices.length;
+        int[] toDst = new int[size]; // toDst[v] is the distance from v to dst
+        for (int v = 0; v < size; v++)
+            toDst[v] = search.toDestination(vertices[v]);
+
+        // the edges of the DAG, stored like CompactGraph
+        int[] offsets = new int[size + 1], targets = new int[size];
+        for (int v = 0; v < size; v++) {
+            for (int k = 0, degree = graph.degree(vertices[v]); k < degree; k++) {
+                int w = Arrays.binarySearch(vertices, graph.neighbor(vertices[v], k));
+                if (w < 0 || toDst[w] != toDst[v] - 1)
+                    continue;
+                if (offsets[v + 1] == targets.length)
+                    targets = Arrays.copyOf(targets, 2 * targets.length);
+                targets[offsets[v + 1]++] = w;
+            }
+            if (v + 1 < size)
+                offsets[v + 2] = offsets[v + 1];
+        }
+
+        this.graph = new Dag(offsets, targets);
+        this.src = Arrays.binarySearch(vertices, src);
+        length = toDst[this.src];
+        path = new int[length + 1];
+        cursor = new int[length + 1];
+    }
+
+    /**
+     * Check whether there is another path, and find it if it isn't found yet
+     *
+     * @return true if there is another path
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null)
+            next = advance();
+        return next != null;
+    }
+
+    /**
+     * Get the next shortest path
+     *
+     * @return ids of the vertices on the path, from the source to the destination
+     * @throws NoSuchElementException if there are no more paths
+     */
+    @Override
+    public int[] next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        int[] result = next;
+        next = null;
+        return result;
+    }
+
+    /**
+     * Resume the search until the next path is found
+     *
+     * @return the next path, or null if there are no more paths
+     */
+    private int[] advance() {
+        if (done)
+            return null;
+        if (depth < 0) // start the search from src
+            push(src);
+
+        while (depth >= 0) {
+            int cur = path[depth];
+            if (depth == length) { // cur is dst, since every step leads one step closer to it
+                int[] found = new int[length + 1];
+                for (int t = 0; t <= length; t++)
+                    found[t] = vertices[path[t]];
+                depth--;
+                return found;
+            }
+            if (cursor[depth] == graph.degree(cur)) { // every neighbor is tried
+                depth--;
+                continue;
+            }
+            push(graph.neighbor(cur, cursor[depth]++));
+        }
+        done = true; // every path is found
+        return null;
+    }
+
+    /**
+     * Append v to the path being searched
+     */
+    private void push(int v) {
+        path[++depth] = v;
+        cursor[depth] = 0;
+    }
+
+    /**
+     * A shortest-path DAG, whose vertices are numbered from 0 in the order of their ids in the graph. The
+     * neighbors of a vertex are the next vertices of the shortest paths through it, so it is not undirected.
+     */
+    private static class Dag implements IntGraph {
+        private final int[] offsets; // the neighbors of v are targets[offsets[v]] ... targets[offsets[v + 1] - 1]
+        private final int[] targets; // neighbors of all the vertices
+
+        Dag(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        @Override
+        public int size() {
+            return offsets.length - 1;
+        }
+
+        @Override
+        public int degree(int vertex) {
+            return offsets[vertex + 1] - offsets[vertex];
+        }
+
+        @Override
+        public int neighbor(int vertex, int k) {
+            return targets[offsets[vertex] + k];
+        }
+    }
+}
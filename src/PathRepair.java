@@ -0,0 +1,155 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   PathRepair.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// PathRepair.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.Arrays;
+
+/**
+ * Updates the row of an old source in a {@link PathTable} after new vertices (and their edges) are appended to
+ * the graph, without running a full BFS again
+ * <p>
+ * Every new edge has a new vertex on one end, and adding edges can only make distances shorter. So the distance
+ * from the source to a new vertex x starts from the best of its old neighbors (a seed), and the improvements are
+ * propagated from the seeds in order of distance, like a BFS that starts at several levels. Only the vertices whose
+ * distance changes are visited, the others are read from the old table.
+ * <p>
+ * The distances are the same as a full BFS would find; a changed vertex gets the first vertex that improved it as
+ * predecessor, which is on a shortest path but may differ from the one a full BFS picks.
+ * <p>
+ * The buffers are kept between repairs, and a vertex is changed in the current repair iff its stamp equals
+ * {@link #epoch}. An instance is not thread safe, every thread should use its own.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class PathRepair {
+    private int[] stamp = new int[0]; // stamp[v] == epoch iff v is changed by the current repair
+    private int[] distance = new int[0]; // new distance of a changed vertex
+    private int[] predecessor = new int[0]; // new predecessor of a changed vertex
+    private int[] queue = new int[0]; // changed vertices in the order they are improved
+    private long[] seeds = new long[0]; // (distance << 32 | vertex) of the new vertices reachable from old ones
+    private int epoch; // stamp of the current repair
+
+    /**
+     * Repair the row of src
+     * <p>
+     * Valid argument conditions:
+     * 1. old holds the data of the graph before the new vertices were added, and table starts as a copy of it
+     * 2. the vertices from old.size() to graph.size() - 1 are new, every other vertex and edge is old
+     * <p>
+     * The distances are read from old, since the rows of other sources in table may already be repaired.
+     *
+     * @param graph the graph with the new vertices
+     * @param old   the table before the new vertices were added
+     * @param table the table to be repaired, of graph.size() vertices
+     * @param src   the source, an old vertex
+     * @return false if a distance is too large for the table, true otherwise
+     */
+    boolean repair(IntGraph graph, PathTable old, PathTable table, int src) {
+        int oldSize = old.size();
+        start(graph.size(), graph.size() - oldSize);
+
+        // seeds: new vertices next to an old vertex reachable from src
+        int numSeeds = 0;
+        for (int x = oldSize; x < graph.size(); x++) {
+            int best = -1, from = -1;
+            for (int k = 0, degree = graph.degree(x); k < degree; k++) {
+                int y = graph.neighbor(x, k);
+                int d = y < oldSize ? old.distance(src, y) : -1;
+                if (d >= 0 && (best < 0 || d + 1 < best)) {
+                    best = d + 1;
+                    from = y;
+                }
+            }
+            if (best >= 0) {
+                change(x, best, from);
+                seeds[numSeeds++] = (long) best << 32 | x;
+            }
+        }
+        Arrays.sort(seeds, 0, numSeeds);
+
+        // propagate in order of distance, taking the closer one of the next seed and the head of the queue
+        int head = 0, tail = 0, nextSeed = 0;
+        while (head < tail || nextSeed < numSeeds) {
+            int cur;
+            if (nextSeed < numSeeds && (head == tail || seeds[nextSeed] >>> 32 <= distance[queue[head]])) {
+                cur = (int) seeds[nextSeed];
+                if (seeds[nextSeed++] >>> 32 != distance[cur])
+                    continue; // improved after being seeded, so it is in the queue as well
+            } else {
+                cur = queue[head++];
+            }
+
+            for (int k = 0, degree = graph.degree(cur); k < degree; k++) {
+                int nxt = graph.neighbor(cur, k);
+                int d = distance(old, src, nxt);
+                if (d < 0 || d > distance[cur] + 1) {
+                    change(nxt, distance[cur] + 1, cur);
+                    queue[tail++] = nxt;
+                }
+            }
+        }
+
+        // store the changes, the distance to an earlier vertex is stored by the repair of that vertex
+        for (int k = 0; k < numSeeds + tail; k++) {
+            int v = k < numSeeds ? (int) seeds[k] : queue[k - numSeeds];
+            if (v > src && !table.setDistance(src, v, distance[v]))
+                return false;
+            table.setPredecessor(src, v, predecessor[v]);
+        }
+        return true;
+    }
+
+    /**
+     * Get the current distance from src to v: the new one if v is changed, otherwise the old one
+     */
+    private int distance(PathTable old, int src, int v) {
+        if (stamp[v] == epoch)
+            return distance[v];
+        return v < old.size() ? old.distance(src, v) : -1;
+    }
+
+    /**
+     * Record a shorter distance from the source to v
+     */
+    private void change(int v, int dist, int from) {
+        stamp[v] = epoch;
+        distance[v] = dist;
+        predecessor[v] = from;
+    }
+
+    /**
+     * Start a new repair on a graph of size vertices with numNew new ones: grow the buffers if needed
+     * and move to the next epoch
+     */
+    private void start(int size, int numNew) {
+        if (stamp.length < size || epoch == Integer.MAX_VALUE) {
+            stamp = new int[size];
+            distance = new int[size];
+            predecessor = new int[size];
+            queue = new int[size];
+            epoch = 0;
+        }
+        if (seeds.length < numNew)
+            seeds = new long[numNew];
+        epoch++;
+    }
+}
@@ -0,0 +1,441 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   PathTable.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// PathTable.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * All-pairs shortest path data of an undirected graph, stored in as few bytes as possible
+ * <p>
+ * There is no path between two vertices in different components, so only the pairs inside a component are stored,
+ * indexed by the local index of each vertex in its component (see {@link ComponentIndex}): the table costs
+ * the sum of (component size)^2 cells instead of (number of vertices)^2, and a pair in different components is
+ * answered without reading a row.
+ * <p>
+ * Distances are symmetric, so only the upper triangle is stored: row i holds the distances from i to the vertices
+ * after i in its component. Each distance is stored as distance+1 (0 for unreachable) in an unsigned byte, or in an
+ * unsigned short (char) if the table is created as wide. So a distance can not be more than
+ * {@link #MAX_BYTE_DISTANCE} (or {@link #MAX_WIDE_DISTANCE} if wide).
+ * <p>
+ * Predecessors are not symmetric, so all of them are stored: predecessor(src, v) is the vertex before v on the
+ * shortest path from src to v. Each is stored as its local index+1 (0 for none) in the narrowest of byte/char/int
+ * that can hold the size of the largest component.
+ * <p>
+ * Each row is a {@link ByteBuffer} view of a block of at most {@link #BLOCK} bytes, which holds several whole rows.
+ * Where the blocks live is chosen by the {@link GraphProcessor.PathStorage}: on the heap, in direct memory, or in a
+ * memory-mapped temporary file. A table read from a snapshot keeps its blocks in the mapped snapshot instead, which
+ * is read-only. Either way, reading a cell doesn't allocate anything, and the number of cells is not limited by the
+ * maximum length of an array.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+class PathTable {
+    /**
+     * Maximum distance that can be stored in a table that is not wide
+     */
+    static final int MAX_BYTE_DISTANCE = 0xFF - 1;
+    /**
+     * Maximum distance that can be stored in a wide table
+     */
+    static final int MAX_WIDE_DISTANCE = 0xFFFF - 1;
+    /**
+     * Maximum number of bytes of a block, unless a single row is larger
+     */
+    private static final int BLOCK = 1 << 28;
+
+    private final int size; // number of vertices
+    private final ComponentIndex components; // components of the graph, the rows are sized to them
+    private final boolean wide; // whether distances are stored in chars instead of bytes
+    private final int predecessorWidth; // bytes of a predecessor, see predecessorWidth(ComponentIndex)
+    private final GraphProcessor.PathStorage storage; // where the blocks are allocated
+    private final ByteBuffer[] distanceRows; // row i holds distance+1 from i to the later vertices of its component
+    private final ByteBuffer[] predecessorRows; // row src holds local predecessor+1 of every vertex of its component
+
+    /**
+     * Create an empty table, where every vertex can only reach itself
+     *
+     * @param components components of the graph
+     * @param wide       true if distances may be more than {@link #MAX_BYTE_DISTANCE}
+     * @param storage    where the rows are stored
+     * @throws UncheckedIOException if the temporary file of {@link GraphProcessor.PathStorage#MAPPED} can not be
+     *                              created or mapped
+     */
+    PathTable(ComponentIndex components, boolean wide, GraphProcessor.PathStorage storage) {
+        this(components, wide, storage, null);
+    }
+
+    /**
+     * Create a table, with the rows of a snapshot or new ones
+     *
+     * @param components components of the graph
+     * @param wide       true if distances may be more than {@link #MAX_BYTE_DISTANCE}
+     * @param storage    where the rows are stored
+     * @param snapshot   the snapshot whose next sections are the rows, null for new rows filled with zeros
+     * @throws UncheckedIOException if the temporary file of {@link GraphProcessor.PathStorage#MAPPED} or the snapshot
+     *                              can not be mapped, or the snapshot doesn't have the rows
+     */
+    private PathTable(ComponentIndex components, boolean wide, GraphProcessor.PathStorage storage,
+                      GraphSnapshot.Input snapshot) {
+        this.size = components.size();
+        this.components = components;
+        this.wide = wide;
+        this.storage = storage;
+        predecessorWidth = predecessorWidth(components);
+
+        // new blocks are filled with zeros, which is unreachable and no predecessor
+        try (Allocator allocator = new Allocator(storage, snapshot)) {
+            distanceRows = allocator.rows(size, i -> distanceCells(components, i) * (wide ? 2 : 1));
+            predecessorRows = allocator.rows(size,
+                    i -> components.componentSize(components.component(i)) * predecessorWidth);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can not allocate the path table", e);
+        }
+    }
+
+    /**
+     * Create a table of the vertices in components, starting with the data of old for its vertices
+     * (the first old.size() ones). The new vertices can only reach themselves until their data is set.
+     * <p>
+     * Valid argument conditions:
+     * 1. every component of old is contained in a component of components, i.e. vertices and edges are only added
+     *
+     * @param old        the table to be copied, the distances are as wide as in old
+     * @param components components of the graph, with at least old.size() vertices
+     * @param storage    where the rows are stored
+     * @throws UncheckedIOException if the temporary file of {@link GraphProcessor.PathStorage#MAPPED} can not be
+     *                              created or mapped
+     */
+    PathTable(PathTable old, ComponentIndex components, GraphProcessor.PathStorage storage) {
+        this(components, old.wide, storage);
+
+        for (int i = 0; i < old.size; i++) {
+            int c = components.component(i), oldC = old.components.component(i);
+            int oldSize = old.components.componentSize(oldC);
+            if (oldSize == components.componentSize(c) && predecessorWidth == old.predecessorWidth) {
+                // the same component, so the rows have the same layout
+                distanceRows[i].duplicate().put(old.distanceRows[i].duplicate());
+                predecessorRows[i].duplicate().put(old.predecessorRows[i].duplicate());
+                continue;
+            }
+            for (int k = 0; k < oldSize; k++) { // the component has grown, so the cells move
+                int v = old.components.member(oldC, k);
+                if (v > i)
+                    setDistance(i, v, old.distance(i, v));
+                setPredecessor(i, v, old.predecessor(i, v));
+            }
+        }
+    }
+
+    /**
+     * Write the table to a snapshot: 1 if it is wide and 0 otherwise as a field, then a section of the rows of
+     * distances and a section of the rows of predecessors, each cell as it is stored
+     *
+     * @param out the snapshot
+     * @throws IOException exception resulting from writing the snapshot
+     */
+    void write(GraphSnapshot.Output out) throws IOException {
+        out.putInt(wide ? 1 : 0);
+        out.putRows(distanceRows);
+        out.putRows(predecessorRows);
+    }
+
+    /**
+     * Read a table written by {@link #write(GraphSnapshot.Output)}. Its rows are read-only views of the mapped
+     * snapshot, so its storage is {@link GraphProcessor.PathStorage#MAPPED}.
+     *
+     * @param in         the snapshot
+     * @param components components of the graph of the table
+     * @return the table
+     * @throws IOException exception resulting from reading the snapshot, or if it is corrupted
+     */
+    static PathTable read(GraphSnapshot.Input in, ComponentIndex components) throws IOException {
+        int wide = in.getInt();
+        if (wide != 0 && wide != 1)
+            throw new IOException("Corrupted snapshot: invalid field " + wide);
+        try {
+            return new PathTable(components, wide == 1, GraphProcessor.PathStorage.MAPPED, in);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Store the result of a BFS from src
+     * <p>
+     * Only the distances to vertices after src are kept, the others are stored by the rows of those vertices.
+     *
+     * @param src         the source of the BFS
+     * @param distance    distance[v] is the distance from src to v, -1 if unreachable
+     * @param predecessor predecessor[v] is the vertex before v on the path from src, -1 if none
+     * @return false if a distance is too large for this table (nothing is stored then), true otherwise
+     */
+    boolean setRow(int src, int[] distance, int[] predecessor) {
+        int c = components.component(src), first = components.local(src) + 1, last = components.componentSize(c);
+        int max = wide ? MAX_WIDE_DISTANCE : MAX_BYTE_DISTANCE;
+        for (int k = first; k < last; k++)
+            if (distance[components.member(c, k)] > max)
+                return false;
+
+        ByteBuffer row = distanceRows[src];
+        if (wide) {
+            for (int k = first; k < last; k++)
+                row.putChar((k - first) * 2, (char) (distance[components.member(c, k)] + 1));
+        } else {
+            for (int k = first; k < last; k++)
+                row.put(k - first, (byte) (distance[components.member(c, k)] + 1));
+        }
+
+        for (int k = 0; k < last; k++) {
+            int v = components.member(c, k);
+            setPredecessor(src, v, predecessor[v]);
+        }
+        return true;
+    }
+
+    /**
+     * Change the distance between i and j
+     * <p>
+     * Valid argument conditions:
+     * 1. i and j should be in the same component
+     *
+     * @param i        a vertex
+     * @param j        another vertex
+     * @param distance number of edges on the shortest path, -1 if unreachable
+     * @return false if the distance is too large for this table (nothing is stored then), true otherwise
+     */
+    boolean setDistance(int i, int j, int distance) {
+        if (distance > (wide ? MAX_WIDE_DISTANCE : MAX_BYTE_DISTANCE))
+            return false;
+        if (i > j) { // only the upper triangle is stored
+            int temp = i;
+            i = j;
+            j = temp;
+        }
+        int cell = components.local(j) - components.local(i) - 1;
+        if (wide)
+            distanceRows[i].putChar(cell * 2, (char) (distance + 1));
+        else
+            distanceRows[i].put(cell, (byte) (distance + 1));
+        return true;
+    }
+
+    /**
+     * Change the vertex before v on the shortest path from src to v
+     * <p>
+     * Valid argument conditions:
+     * 1. v and predecessor (unless it is -1) should be in the component of src
+     *
+     * @param src         the source
+     * @param v           the destination
+     * @param predecessor the predecessor, -1 if none
+     */
+    void setPredecessor(int src, int v, int predecessor) {
+        ByteBuffer row = predecessorRows[src];
+        int cell = components.local(v), value = predecessor < 0 ? 0 : components.local(predecessor) + 1;
+        if (predecessorWidth == 1)
+            row.put(cell, (byte) value);
+        else if (predecessorWidth == 2)
+            row.putChar(cell * 2, (char) value);
+        else
+            row.putInt(cell * 4, value);
+    }
+
+    /**
+     * Get the distance between i and j
+     *
+     * @param i a vertex
+     * @param j another vertex
+     * @return number of edges on the shortest path, -1 if unreachable
+     */
+    int distance(int i, int j) {
+        if (i == j)
+            return 0;
+        if (!components.connected(i, j))
+            return -1;
+        if (i > j) { // only the upper triangle is stored
+            int temp = i;
+            i = j;
+            j = temp;
+        }
+        int cell = components.local(j) - components.local(i) - 1;
+        if (wide)
+            return distanceRows[i].getChar(cell * 2) - 1;
+        return (distanceRows[i].get(cell) & 0xFF) - 1;
+    }
+
+    /**
+     * Get the vertex before v on the shortest path from src to v
+     *
+     * @param src the source
+     * @param v   the destination
+     * @return the predecessor, -1 if v is src or unreachable
+     */
+    int predecessor(int src, int v) {
+        if (!components.connected(src, v))
+            return -1;
+        ByteBuffer row = predecessorRows[src];
+        int cell = components.local(v), value;
+        if (predecessorWidth == 1)
+            value = row.get(cell) & 0xFF;
+        else if (predecessorWidth == 2)
+            value = row.getChar(cell * 2);
+        else
+            value = row.getInt(cell * 4);
+        return value == 0 ? -1 : components.member(components.component(src), value - 1);
+    }
+
+    /**
+     * Get the components the rows are sized to
+     *
+     * @return components of the graph
+     */
+    ComponentIndex getComponents() {
+        return components;
+    }
+
+    /**
+     * Get the number of vertices
+     *
+     * @return number of vertices
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Check whether distances are stored in chars instead of bytes
+     *
+     * @return true if the table is wide
+     */
+    boolean isWide() {
+        return wide;
+    }
+
+    /**
+     * Get where the rows are stored
+     *
+     * @return storage of the rows
+     */
+    GraphProcessor.PathStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * Get the number of distances stored in the row of a vertex: one for each later vertex in its component
+     */
+    private static int distanceCells(ComponentIndex components, int i) {
+        return components.componentSize(components.component(i)) - components.local(i) - 1;
+    }
+
+    /**
+     * Get the bytes of a predecessor: 1 if the largest component has less than 0xFF vertices, 2 if less than 0xFFFF,
+     * 4 otherwise
+     */
+    private static int predecessorWidth(ComponentIndex components) {
+        int max = 0;
+        for (int c = 0; c < components.count(); c++)
+            max = Math.max(max, components.componentSize(c));
+        return max < 0xFF ? 1 : max < 0xFFFF ? 2 : 4;
+    }
+
+    /**
+     * Allocates the blocks of a table and splits them into rows
+     * <p>
+     * For {@link GraphProcessor.PathStorage#MAPPED}, the blocks are mapped one after another from a temporary file,
+     * which is deleted when the allocator is closed. The mappings stay valid until the rows are garbage collected.
+     * From a snapshot, the blocks are mapped one after another from a section of the snapshot instead, for each
+     * call of {@link #rows(int, IntUnaryOperator)}.
+     */
+    private static class Allocator implements AutoCloseable {
+        private final GraphProcessor.PathStorage storage;
+        private final GraphSnapshot.Input snapshot; // the snapshot holding the rows, null for new rows
+        private final FileChannel file; // the temporary file, only for new rows in PathStorage.MAPPED
+        private long position; // where the next block is mapped in file or snapshot
+
+        private Allocator(GraphProcessor.PathStorage storage, GraphSnapshot.Input snapshot) throws IOException {
+            this.storage = storage;
+            this.snapshot = snapshot;
+            file = storage != GraphProcessor.PathStorage.MAPPED || snapshot != null ? null : FileChannel.open(
+                    Files.createTempFile("paths", ".table"), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        /**
+         * Allocate numRows rows, putting as many consecutive rows as possible in each block
+         *
+         * @param numRows  number of rows
+         * @param rowBytes number of bytes of each row
+         * @return the rows
+         * @throws IOException exception resulting from mapping the temporary file or the snapshot,
+         *                     or if the next section of the snapshot doesn't have the rows
+         */
+        private ByteBuffer[] rows(int numRows, IntUnaryOperator rowBytes) throws IOException {
+            if (snapshot != null) {
+                long total = 0;
+                for (int i = 0; i < numRows; i++)
+                    total += rowBytes.applyAsInt(i);
+                position = snapshot.section(total);
+            }
+            ByteBuffer[] rows = new ByteBuffer[numRows];
+            for (int first = 0, last; first < numRows; first = last) {
+                long bytes = rowBytes.applyAsInt(first);
+                for (last = first + 1; last < numRows && bytes + rowBytes.applyAsInt(last) <= BLOCK; last++)
+                    bytes += rowBytes.applyAsInt(last);
+
+                ByteBuffer block = block((int) bytes);
+                for (int i = first, start = 0; i < last; start += rowBytes.applyAsInt(i++)) {
+                    block.limit(start + rowBytes.applyAsInt(i)).position(start);
+                    rows[i] = block.slice();
+                }
+            }
+            return rows;
+        }
+
+        private ByteBuffer block(int bytes) throws IOException {
+            if (snapshot != null) {
+                position += bytes;
+                return snapshot.map(position - bytes, bytes);
+            }
+            switch (storage) {
+                case DIRECT:
+                    return ByteBuffer.allocateDirect(bytes);
+                case MAPPED:
+                    position += bytes;
+                    return file.map(FileChannel.MapMode.READ_WRITE, position - bytes, bytes);
+                default:
+                    return ByteBuffer.allocate(bytes);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (file != null)
+                file.close();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   SignatureIndex.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// SignatureIndex.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Hash index used to find the adjacent words of a word without comparing it against every other word.
+ * <p>
+ * Every indexed word is bucketed by its signatures:
+ * - wildcard signatures, one per position, where the char at that position is replaced by {@link #WILDCARD}
+ * (e.g. _AT, C_T, CA_ for CAT). Two words of the same length differing by 1 char replacement share one of these.
+ * - deletion signatures, one per position, where the char at that position is removed (e.g. AT, CT, CA for CAT).
+ * A word is 1 char addition away from CAT iff it is one of these.
+ * <p>
+ * So the candidates of a word are only the words sharing a bucket with it,
+ * and each candidate is confirmed by {@link WordProcessor#isAdjacent(String, String)}.
+ * Building the edges of n words this way is O(n * L^2) instead of O(n^2 * L).
+ * <p>
+ * Each indexed word is numbered in the order of indexing, from 0. Lookups only read the index, so several threads
+ * can look up at the same time as long as no word is being added.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class SignatureIndex {
+    /**
+     * Char used to mark the replaced position in a wildcard signature
+     */
+    private static final char WILDCARD = '\0';
+
+    private Map<String, Integer> words; // every indexed word -> its number
+    private Map<String, List<String>> wildcards; // wildcard signature -> words of that signature
+    private Map<String, List<String>> deletions; // deletion signature -> words of that signature
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     */
+    SignatureIndex() {
+        words = new HashMap<>();
+        wildcards = new HashMap<>();
+        deletions = new HashMap<>();
+    }
+
+    /**
+     * Add a word to the index, so that later lookups can find it
+     *
+     * @param word the word to be indexed
+     * @return true if the word is added, false if it is null or already indexed
+     */
+    public boolean add(String word) {
+        if (word == null || words.putIfAbsent(word, words.size()) != null)
+            return false;
+
+        for (int i = 0; i < word.length(); i++) {
+            wildcards.computeIfAbsent(wildcard(word, i), k -> new ArrayList<>(2)).add(word);
+            if (i == 0 || word.charAt(i) != word.charAt(i - 1)) // removing any char of a run gives the same signature
+                deletions.computeIfAbsent(deletion(word, i), k -> new ArrayList<>(2)).add(word);
+        }
+        return true;
+    }
+
+    /**
+     * Pass every indexed word that is adjacent to word ({@link WordProcessor#isAdjacent(String, String)}) to action.
+     * The word itself doesn't need to be indexed.
+     *
+     * @param word   the word whose adjacent words we want to find
+     * @param action called once for each adjacent word
+     * @return number of candidates compared to word by isAdjacent
+     */
+    public int forEachAdjacent(String word, Consumer<String> action) {
+        int checks = 0;
+        for (int i = 0; i < word.length(); i++) {
+            // 1 char replacement: same wildcard signature
+            List<String> bucket = wildcards.get(wildcard(word, i));
+            if (bucket != null)
+                for (String other : bucket) {
+                    checks++;
+                    if (WordProcessor.isAdjacent(word, other))
+                        action.accept(other);
+                }
+
+            // 1 char deletion: the signature itself is an indexed word
+            if (i == 0 || word.charAt(i) != word.charAt(i - 1)) {
+                String shorter = deletion(word, i);
+                if (words.containsKey(shorter))
+                    action.accept(shorter);
+            }
+        }
+
+        // 1 char addition: the word is a deletion signature of a longer word
+        List<String> longer = deletions.get(word);
+        if (longer != null)
+            longer.forEach(action);
+        return checks;
+    }
+
+    /**
+     * Pass the number of every indexed word that is adjacent to word to action, see
+     * {@link #forEachAdjacent(String, Consumer)}
+     *
+     * @param word   the word whose adjacent words we want to find
+     * @param action called once with the number of each adjacent word
+     * @return number of candidates compared to word by isAdjacent
+     */
+    public int forEachAdjacentId(String word, IntConsumer action) {
+        return forEachAdjacent(word, other -> action.accept(words.get(other)));
+    }
+
+    /**
+     * Get the number of a word, i.e. how many words were indexed before it
+     *
+     * @param word the word
+     * @return the number of the word, or -1 if it is not indexed
+     */
+    public int id(String word) {
+        Integer id = words.get(word);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the number of indexed words
+     *
+     * @return number of indexed words
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Get the wildcard signature of word at position i
+     *
+     * @param word the word
+     * @param i    the position to be replaced by {@link #WILDCARD}
+     * @return the wildcard signature
+     */
+    private static String wildcard(String word, int i) {
+        char[] chars = word.toCharArray();
+        chars[i] = WILDCARD;
+        return new String(chars);
+    }
+
+    /**
+     * Get the deletion signature of word at position i
+     *
+     * @param word the word
+     * @param i    the position to be removed
+     * @return the deletion signature
+     */
+    private static String deletion(String word, int i) {
+        return word.substring(0, i) + word.substring(i + 1);
+    }
+}
@@ -0,0 +1,150 @@
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//                   SourceCache.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// SourceCache.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of BFS trees, one per source vertex, evicting the least recently used source when full
+ * <p>
+ * A tree of a graph with n vertices costs 8n bytes (a distance row and a predecessor row).
+ * A cache only holds the trees of one graph, so a changed graph gets a new cache.
+ * All the methods are thread safe.
+ *
+ * @author Shawn Zhong (shawn.zhong@wisc.edu)
+ */
+public class SourceCache {
+    /**
+     * Result of a BFS from {@link #root}
+     */
+    static class Tree {
+        final int root; // source of the BFS
+        final int[] distance; // distance[v] is the distance from root to v, -1 if unreachable
+        final int[] predecessor; // predecessor[v] is the vertex before v on the path from root, -1 if none
+
+        Tree(int root, int[] distance, int[] predecessor) {
+            this.root = root;
+            this.distance = distance;
+            this.predecessor = predecessor;
+        }
+    }
+
+    private final int capacity; // maximum number of trees
+    private final LinkedHashMap<Integer, Tree> trees; // in access order, so the eldest is the least recently used
+    private long hits, misses, evictions; // counters since construction
+
+    /**
+     * Constructor for this class. Initializes instances variables to set the starting state of the object
+     *
+     * @param capacity maximum number of trees kept at the same time
+     * @throws IllegalArgumentException if capacity is less than 1
+     */
+    SourceCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity should be at least 1");
+
+        this.capacity = capacity;
+        trees = new LinkedHashMap<Integer, Tree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Tree> eldest) {
+                if (size() <= SourceCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Get the tree of a source, or else the tree of another source, and count a hit or a miss.
+     * Either one is enough to answer a query between the two, since the graph is undirected.
+     *
+     * @param root        the source
+     * @param alternative the other source
+     * @return the tree, or null if neither is cached
+     */
+    synchronized Tree get(int root, int alternative) {
+        Tree tree = trees.get(root);
+        if (tree == null)
+            tree = trees.get(alternative);
+        if (tree == null)
+            misses++;
+        else
+            hits++;
+        return tree;
+    }
+
+    /**
+     * Cache a tree, evicting the least recently used one if the cache is full
+     *
+     * @param tree the tree to be cached
+     */
+    synchronized void put(Tree tree) {
+        trees.put(tree.root, tree);
+    }
+
+    /**
+     * Get the maximum number of trees kept at the same time
+     *
+     * @return capacity of the cache
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Get the number of trees currently cached
+     *
+     * @return number of trees
+     */
+    public synchronized int getSize() {
+        return trees.size();
+    }
+
+    /**
+     * Get the number of lookups that found the tree
+     *
+     * @return number of hits
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that didn't find the tree
+     *
+     * @return number of misses
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Get the number of trees removed to make room for others
+     *
+     * @return number of evictions
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+}
@@ -1,97 +1,260 @@
-/////////////////////////////////////////////////////////////////////////////
-// Semester:         CS400 Spring 2018
-// PROJECT:          P4 Dictionary Graph
-// FILES:            Graph.java
-//                   GraphTest.java
-//                   GraphProcessor.java
-//                   GraphProcessorTest.java
-//                   WordProcessorTest.java
-//                   GraphADT.java
-//
-// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
-//                   Catherine Yan (chyan2@wisc.edu)
-//                   Jiazhi Yang (jyang436@wisc.edu)
-// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
-//
-// Bugs:             N/A
-// Source Credits:   N/A
-// Due date:         Monday, April 16th
-//
-// WordProcessor.java
-//////////////////////////// 80 columns wide //////////////////////////////////
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.util.stream.Stream;
-
-/**
- * This class contains some utility helper methods
- *
- * @author Jiazhi Yang (jyang436@wisc.edu)
- */
-public class WordProcessor {
-
-    /**
-     * Gets a Stream of words from the filepath.
-     * <p>
-     * The Stream should only contain trimmed, non-empty and UPPERCASE words.
-     *
-     * @param filepath file path to the dictionary file
-     * @return Stream<String> stream of words read from the filepath
-     * @throws IOException exception resulting from accessing the filepath
-     * @see <a href="http://www.oracle.com/technetwork/articles/java/ma14-java-se-8-streams-2177646.html">java8 stream blog</a>
-     */
-    public static Stream<String> getWordStream(String filepath) throws IOException {
-        // get file stream => remove space => remove empty line => change to upper case
-        return Files.lines(Paths.get(filepath)).map(String::trim).filter(e -> !e.equals("")).map(String::toUpperCase);
-    }
-
-    /**
-     * Adjacency between word1 and word2 is defined by:
-     * if the difference between word1 and word2 is of
-     * 1 char replacement
-     * 1 char addition
-     * 1 char deletion
-     * then
-     * word1 and word2 are adjacent
-     * else
-     * word1 and word2 are not adjacent
-     * <p>
-     * Note: if word1 is equal to word2, they are not adjacent
-     *
-     * @param word1 first word
-     * @param word2 second word
-     * @return true if word1 and word2 are adjacent else false
-     */
-    public static boolean isAdjacent(String word1, String word2) {
-        if (word1.equals(word2))
-            return false; // same string case
-        if (word1.length() == word2.length()) { // 1 char replacement case
-            int sum = 0;
-            for (int i = 0; i < word1.length(); i++)
-                if ((word1.charAt(i) ^ word2.charAt(i)) != 0)
-                    sum++;
-            if (sum == 1)
-                return true;
-        }
-        if (Math.abs(word1.length() - word2.length()) == 1) { // 1 char add and delete case
-            if (word1.length() < word2.length()) { // make all cases become 1 delete cases
-                String temp = word1;
-                word1 = word2;
-                word2 = temp;
-            }
-            char[] word = word1.toCharArray();
-            for (int i = 0; i < word1.length(); i++) { // remove a char at each position to make new
-                // substring to find whether it matches word2
-                StringBuilder sb = new StringBuilder(); // use StringBuilder for better performance
-                for (int j = 0; j < word1.length(); j++)
-                    if (i != j)
-                        sb = sb.append(word[j]);
-                if (sb.toString().equals(word2))
-                    return true;
-            }
-        }
-        return false;
-    }
-}
+/////////////////////////////////////////////////////////////////////////////
+// Semester:         CS400 Spring 2018
+// PROJECT:          P4 Dictionary Graph
+// FILES:            Graph.java
+//                   GraphTest.java
+//                   GraphProcessor.java
+//                   GraphProcessorTest.java
+//                   WordProcessorTest.java
+//                   GraphADT.java
+//
+// USER:             Shawn Zhong (shawn.zhong@wisc.edu)
+//                   Catherine Yan (chyan2@wisc.edu)
+//                   Jiazhi Yang (jyang436@wisc.edu)
+// Instructor:       Deb Deppeler (deppeler@cs.wisc.edu)
+//
+// Bugs:             N/A
+// Source Credits:   N/A
+// Due date:         Monday, April 16th
+//
+// WordProcessor.java
+//////////////////////////// 80 columns wide //////////////////////////////////
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * This class contains some utility helper methods
+ *
+ * @author Jiazhi Yang (jyang436@wisc.edu)
+ */
+public class WordProcessor {
+    /**
+     * Maximum number of bytes of the file mapped at the same time by {@link #forEachWord(String, Consumer)}
+     */
+    private static final int MAP_WINDOW = 64 << 20;
+
+    /**
+     * Gets a Stream of words from the filepath.
+     * <p>
+     * The Stream should only contain trimmed, non-empty and UPPERCASE words.
+     *
+     * @param filepath file path to the dictionary file
+     * @return Stream<String> stream of words read from the filepath
+     * @throws IOException exception resulting from accessing the filepath
+     * @see <a href="http://www.oracle.com/technetwork/articles/java/ma14-java-se-8-streams-2177646.html">java8 stream blog</a>
+     */
+    public static Stream<String> getWordStream(String filepath) throws IOException {
+        // get file stream => remove space => remove empty line => change to upper case
+        return Files.lines(Paths.get(filepath)).map(String::trim).filter(e -> !e.equals("")).map(String::toUpperCase);
+    }
+
+    /**
+     * Passes each word from the filepath to action, the same words as {@link #getWordStream(String)} in the same order.
+     * <p>
+     * The file is memory-mapped (a window of at most {@link #MAP_WINDOW} bytes at a time) and the line boundaries are
+     * found directly in the mapped bytes. An ASCII line is trimmed and upper cased while being copied into a reused
+     * buffer, so the only object created per word is the word itself. Other lines are decoded as UTF-8 and
+     * normalized by {@link String#trim()} and {@link String#toUpperCase()}.
+     * <p>
+     * The file is closed before returning, also if action throws.
+     *
+     * @param filepath file path to the dictionary file
+     * @param action   called once for each word
+     * @throws IOException exception resulting from accessing the filepath, or if a line is longer than
+     *                     {@link #MAP_WINDOW} bytes
+     */
+    public static void forEachWord(String filepath, Consumer<String> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filepath))) {
+            byte[] word = new byte[64]; // reused buffer of the normalized word
+            long size = channel.size();
+            for (long position = 0; position < size; ) {
+                int length = (int) Math.min(MAP_WINDOW, size - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                if (position + length < size) { // end the window after its last line break, so no line is split
+                    while (length > 0 && buffer.get(length - 1) != '\n' && buffer.get(length - 1) != '\r')
+                        length--;
+                    if (length == 0)
+                        throw new IOException("Line longer than " + MAP_WINDOW + " bytes in " + filepath);
+                }
+
+                for (int start = 0, i = 0; i <= length; i++)
+                    if (i == length || buffer.get(i) == '\n' || buffer.get(i) == '\r') {
+                        word = accept(buffer, start, i, word, action);
+                        start = i + 1;
+                    }
+                position += length;
+            }
+        }
+    }
+
+    /**
+     * Normalize the line between start (inclusive) and end (exclusive) of buffer, and pass it to action if not empty
+     *
+     * @param buffer the mapped bytes
+     * @param start  index of the first byte of the line
+     * @param end    index after the last byte of the line
+     * @param word   buffer to copy the ASCII word into
+     * @param action called with the word
+     * @return word, or a larger buffer if the line didn't fit in it
+     */
+    private static byte[] accept(MappedByteBuffer buffer, int start, int end, byte[] word, Consumer<String> action) {
+        // trim, same as String.trim() for ASCII: remove bytes up to ' ' (non-ASCII bytes are negative)
+        while (start < end && buffer.get(start) >= 0 && buffer.get(start) <= ' ')
+            start++;
+        while (end > start && buffer.get(end - 1) >= 0 && buffer.get(end - 1) <= ' ')
+            end--;
+        if (start == end)
+            return word; // empty line
+
+        if (word.length < end - start)
+            word = new byte[Math.max(end - start, word.length * 2)];
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) { // non-ASCII line, decode it as a whole
+                byte[] line = new byte[end - start];
+                for (int j = start; j < end; j++)
+                    line[j - start] = buffer.get(j);
+                action.accept(new String(line, StandardCharsets.UTF_8).trim().toUpperCase());
+                return word;
+            }
+            word[i - start] = b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b; // upper case in place
+        }
+        action.accept(new String(word, 0, end - start, StandardCharsets.ISO_8859_1));
+        return word;
+    }
+
+    /**
+     * Adjacency between word1 and word2 is defined by:
+     * if the difference between word1 and word2 is of
+     * 1 char replacement
+     * 1 char addition
+     * 1 char deletion
+     * then
+     * word1 and word2 are adjacent
+     * else
+     * word1 and word2 are not adjacent
+     * <p>
+     * Note: if word1 is equal to word2, they are not adjacent
+     * <p>
+     * Runs in a single pass over the two words and doesn't allocate anything.
+     *
+     * @param word1 first word
+     * @param word2 second word
+     * @return true if word1 and word2 are adjacent else false
+     */
+    public static boolean isAdjacent(String word1, String word2) {
+        int len1 = word1.length(), len2 = word2.length();
+        if (len1 == len2) { // 1 char replacement case: exactly one mismatch
+            int i = 0;
+            while (i < len1 && word1.charAt(i) == word2.charAt(i))
+                i++;
+            if (i == len1)
+                return false; // same string case
+            for (i++; i < len1; i++) // the rest should all match
+                if (word1.charAt(i) != word2.charAt(i))
+                    return false;
+            return true;
+        }
+        if (len1 - len2 == 1 || len2 - len1 == 1) { // 1 char add and delete case
+            if (len1 < len2) { // make all cases become 1 delete cases
+                String temp = word1;
+                word1 = word2;
+                word2 = temp;
+                len2 = len1;
+            }
+            int i = 0;
+            while (i < len2 && word1.charAt(i) == word2.charAt(i)) // skip common prefix
+                i++;
+            for (; i < len2; i++) // skip word1.charAt(i), then the rest should all match
+                if (word1.charAt(i + 1) != word2.charAt(i))
+                    return false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #isAdjacent(String, String)}, for callers that already hold the chars of the words
+     *
+     * @param word1 chars of the first word
+     * @param word2 chars of the second word
+     * @return true if word1 and word2 are adjacent else false
+     */
+    public static boolean isAdjacent(char[] word1, char[] word2) {
+        int len1 = word1.length, len2 = word2.length;
+        if (len1 == len2) { // 1 char replacement case: exactly one mismatch
+            int i = 0;
+            while (i < len1 && word1[i] == word2[i])
+                i++;
+            if (i == len1)
+                return false; // same string case
+            for (i++; i < len1; i++) // the rest should all match
+                if (word1[i] != word2[i])
+                    return false;
+            return true;
+        }
+        if (len1 - len2 == 1 || len2 - len1 == 1) { // 1 char add and delete case
+            if (len1 < len2) { // make all cases become 1 delete cases
+                char[] temp = word1;
+                word1 = word2;
+                word2 = temp;
+                len2 = len1;
+            }
+            int i = 0;
+            while (i < len2 && word1[i] == word2[i]) // skip common prefix
+                i++;
+            for (; i < len2; i++) // skip word1[i], then the rest should all match
+                if (word1[i + 1] != word2[i])
+                    return false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #isAdjacent(String, String)}, for callers that hold the raw bytes of the words
+     * (e.g. words read from a file without decoding them into Strings)
+     *
+     * @param word1 bytes of the first word
+     * @param word2 bytes of the second word
+     * @return true if word1 and word2 are adjacent else false
+     */
+    public static boolean isAdjacent(byte[] word1, byte[] word2) {
+        int len1 = word1.length, len2 = word2.length;
+        if (len1 == len2) { // 1 char replacement case: exactly one mismatch
+            int i = 0;
+            while (i < len1 && word1[i] == word2[i])
+                i++;
+            if (i == len1)
+                return false; // same string case
+            for (i++; i < len1; i++) // the rest should all match
+                if (word1[i] != word2[i])
+                    return false;
+            return true;
+        }
+        if (len1 - len2 == 1 || len2 - len1 == 1) { // 1 char add and delete case
+            if (len1 < len2) { // make all cases become 1 delete cases
+                byte[] temp = word1;
+                word1 = word2;
+                word2 = temp;
+                len2 = len1;
+            }
+            int i = 0;
+            while (i < len2 && word1[i] == word2[i]) // skip common prefix
+                i++;
+            for (; i < len2; i++) // skip word1[i], then the rest should all match
+                if (word1[i + 1] != word2[i])
+                    return false;
+            return true;
+        }
+        return false;
+    }
+}